@@ -0,0 +1,475 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import com.sun.istack.internal.Nullable;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphanalyzer.statistic.CalculationControl;
+import org.digitalmodular.graphanalyzer.statistic.FusableStatisticCalculator;
+import org.digitalmodular.graphanalyzer.statistic.FusableStatisticCalculator.NodeCalculator;
+import org.digitalmodular.graphapi.BreadthFirstSearch;
+import org.digitalmodular.graphapi.GraphUtilities;
+import org.digitalmodular.graphapi.SparseGraph;
+import org.digitalmodular.graphapi.TwinClasses;
+
+/**
+ * Calculates multiple per-node statistics in a single parallel pass over the nodes of a graph.
+ * <p>
+ * Each node is visited once by one thread, which performs any traversal shared by the statistics (currently only the
+ * breadth-first search) once, and then runs every statistic on it. All state is per thread and sized to the graph, so
+ * peak memory doesn't grow with the number of statistics beyond their result arrays.
+ * <p>
+ * The time spent in each stage, summed over all threads, is reported to {@link Benchmark}.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class AnalysisEngine {
+	/** The number of nodes a thread calculates before reporting them to the checkpoint and the sink. */
+	private static final int BLOCK_SIZE = 16;
+
+	private final FusableStatisticCalculator[] calculators;
+	private final boolean[]                    needsBreadthFirstSearches;
+	private final boolean                      needsBreadthFirstSearch;
+
+	public AnalysisEngine(FusableStatisticCalculator... calculators) {
+		requireNonNull(calculators, "calculators");
+		if (calculators.length == 0)
+			throw new IllegalArgumentException("At least one calculator is required");
+
+		this.calculators = calculators.clone();
+
+		needsBreadthFirstSearches = new boolean[calculators.length];
+		boolean needsBreadthFirstSearch = false;
+		for (int i = 0; i < calculators.length; i++) {
+			needsBreadthFirstSearches[i] = requireNonNull(calculators[i], "calculator").needsBreadthFirstSearch();
+			needsBreadthFirstSearch |= needsBreadthFirstSearches[i];
+		}
+
+		this.needsBreadthFirstSearch = needsBreadthFirstSearch;
+	}
+
+	/**
+	 * @return The values of each statistic, in the order the calculators were given.
+	 */
+	public double[][] analyze(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+
+		double[][]  results    = new double[calculators.length][size];
+		LongAdder[] stageTimes = newStageTimes();
+
+		ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(graph));
+		IntStream.range(0, size)
+		         .parallel()
+		         .forEach(node -> workers.get().calculate(node, results, stageTimes));
+
+		finish(results);
+		report(stageTimes);
+
+		return results;
+	}
+
+	/**
+	 * Like {@link #analyze(SparseGraph)}, but only calculates one node per class of twins and copies the values to
+	 * the other nodes of the class. Twins are interchangeable, so the results are the same, except that random
+	 * statistics (like cascade spreading speed) get the same sample for all twins, and that statistics summing
+	 * floating-point values in neighbor order (like fractional spreading speed) can differ in rounding.
+	 */
+	public double[][] analyze(SparseGraph graph, TwinClasses twins) {
+		return analyzeInBlocks(graph, twins, null, null, null);
+	}
+
+	/**
+	 * Like {@link #analyze(SparseGraph, TwinClasses)}, but optionally with a checkpoint and a sink.
+	 * <p>
+	 * Nodes are handed out to the threads in small blocks, in ascending order, so they complete in roughly ascending
+	 * order too. Each completed block is reported to the checkpoint, and the values of all nodes up to the first
+	 * incomplete block are passed to the sink. The values are passed before
+	 * {@link FusableStatisticCalculator#finish(double[])}, which may be a problem for calculators that change values
+	 * afterwards.
+	 *
+	 * @param checkpoint When given, the run resumes from the checkpoint of an earlier, interrupted run if there is one,
+	 *                   and keeps it up to date. The checkpoint is deleted when all nodes are done.
+	 * @param sink       When given, receives the values while they're being calculated.
+	 */
+	public double[][] analyze(SparseGraph graph,
+	                          TwinClasses twins,
+	                          @Nullable Checkpoint checkpoint,
+	                          @Nullable StatisticsSink sink) throws IOException {
+		return analyze(graph, twins, checkpoint, sink, null);
+	}
+
+	/**
+	 * Like {@link #analyze(SparseGraph, TwinClasses, Checkpoint, StatisticsSink)}, but optionally under a control,
+	 * with one unit of work per node that needs to be calculated (excluding twins and restored nodes).
+	 * <p>
+	 * When the control stops the run early, the nodes that weren't calculated are {@link Double#NaN},
+	 * {@link FusableStatisticCalculator#finish(double[])} isn't called, and the checkpoint is saved instead of deleted
+	 * so a later run continues where this one stopped. Use {@link CalculationControl#isComplete()} to tell.
+	 */
+	public double[][] analyze(SparseGraph graph,
+	                          TwinClasses twins,
+	                          @Nullable Checkpoint checkpoint,
+	                          @Nullable StatisticsSink sink,
+	                          @Nullable CalculationControl control) throws IOException {
+		try {
+			return analyzeInBlocks(graph, twins, checkpoint, sink, control);
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	/**
+	 * Like {@link #analyze(SparseGraph, TwinClasses)}, but takes the values from the cache where possible, and only
+	 * calculates the other statistics, which are then added to the cache. When everything is cached, not even the
+	 * twins are needed.
+	 *
+	 * @param graphHash The hash of {@code graph}, see {@link GraphUtilities#hashConnections(SparseGraph)}.
+	 */
+	public double[][] analyze(SparseGraph graph, String graphHash, StatisticsCache cache) throws IOException {
+		return analyze(graph, graphHash, cache, null);
+	}
+
+	/**
+	 * Like {@link #analyze(SparseGraph, String, StatisticsCache)}, but also passes the values to a sink, see
+	 * {@link #analyze(SparseGraph, TwinClasses, Checkpoint, StatisticsSink)}. Cached values are passed all at once.
+	 */
+	public double[][] analyze(SparseGraph graph,
+	                          String graphHash,
+	                          StatisticsCache cache,
+	                          @Nullable StatisticsSink sink) throws IOException {
+		return analyze(graph, graphHash, cache, sink, null);
+	}
+
+	/**
+	 * Like {@link #analyze(SparseGraph, String, StatisticsCache, StatisticsSink)}, but optionally under a control, see
+	 * {@link #analyze(SparseGraph, TwinClasses, Checkpoint, StatisticsSink, CalculationControl)}. Incomplete results
+	 * aren't added to the cache. When everything is cached, the control completes without units of work.
+	 */
+	public double[][] analyze(SparseGraph graph,
+	                          String graphHash,
+	                          StatisticsCache cache,
+	                          @Nullable StatisticsSink sink,
+	                          @Nullable CalculationControl control) throws IOException {
+		requireNonNull(graph);
+		requireNonNull(graphHash);
+		requireNonNull(cache);
+
+		int size = graph.size();
+
+		double[][]    results        = new double[calculators.length][];
+		List<Integer> missingIndices = new ArrayList<>(calculators.length);
+		for (int i = 0; i < calculators.length; i++) {
+			results[i] = cache.get(graphHash, size, calculators[i]);
+			if (results[i] == null)
+				missingIndices.add(i);
+		}
+
+		int numMissing = missingIndices.size();
+		Benchmark.record("cache (" + (calculators.length - numMissing) + '/' + calculators.length + " hits)");
+		if (numMissing == 0) {
+			if (control != null)
+				control.start(0);
+
+			if (sink != null) {
+				sink.begin(getAbbreviations(), size);
+				sink.write(results, 0, size);
+			}
+
+			return results;
+		}
+
+		TwinClasses twins = new TwinClasses(graph);
+		Benchmark.record("twins (" + twins.numClasses() + " classes)");
+
+		FusableStatisticCalculator[] missingCalculators = new FusableStatisticCalculator[numMissing];
+		for (int j = 0; j < numMissing; j++)
+			missingCalculators[j] = calculators[missingIndices.get(j)];
+
+		AnalysisEngine engine     = new AnalysisEngine(missingCalculators);
+		Checkpoint     checkpoint = cache.newCheckpoint(graphHash, missingCalculators);
+
+		StatisticsSink missingSink = sink == null ? null : new StatisticsSink() {
+			@Override
+			public void begin(String[] columnNames, int size) throws IOException {
+				sink.begin(getAbbreviations(), size);
+			}
+
+			@Override
+			public void write(double[][] columns, int from, int to) throws IOException {
+				// Put the arrays of the missing statistics between the cached ones
+				for (int j = 0; j < numMissing; j++)
+					results[missingIndices.get(j)] = columns[j];
+
+				sink.write(results, from, to);
+			}
+		};
+
+		double[][] missingResults = engine.analyze(graph, twins, checkpoint, missingSink, control);
+		boolean    complete       = control == null || control.isComplete();
+		for (int j = 0; j < numMissing; j++) {
+			int i = missingIndices.get(j);
+			results[i] = missingResults[j];
+			if (complete)
+				cache.put(graphHash, calculators[i], results[i]);
+		}
+
+		return results;
+	}
+
+	/**
+	 * Like {@link #analyze(SparseGraph)}, but on the calling thread and without reporting to {@link Benchmark}. For
+	 * callers that parallelize over many graphs instead, like reference ensembles.
+	 */
+	public double[][] analyzeSequentially(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+
+		double[][]  results    = new double[calculators.length][size];
+		LongAdder[] stageTimes = newStageTimes();
+
+		Worker worker = new Worker(graph);
+		for (int node = 0; node < size; node++)
+			worker.calculate(node, results, stageTimes);
+
+		finish(results);
+		return results;
+	}
+
+	private double[][] analyzeInBlocks(SparseGraph graph,
+	                                   TwinClasses twins,
+	                                   @Nullable Checkpoint checkpoint,
+	                                   @Nullable StatisticsSink sink,
+	                                   @Nullable CalculationControl control) {
+		requireNonNull(graph);
+		requireNonNull(twins);
+		if (graph.size() != twins.size())
+			throw new IllegalArgumentException("Network sizes differ: " + graph.size() + " vs " + twins.size());
+
+		int size = graph.size();
+
+		double[][]  results    = new double[calculators.length][size];
+		LongAdder[] stageTimes = newStageTimes();
+
+		boolean[] done      = checkpoint != null ? checkpoint.begin(results) : new boolean[size];
+		int[]     remaining = IntStream.of(twins.getRepresentatives()).filter(node -> !done[node]).toArray();
+		int       numBlocks = (remaining.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+		Progress progress = sink != null ? new Progress(getAbbreviations(), twins, results, done, sink) : null;
+
+		CalculationControl nonNullControl = control != null ? control : new CalculationControl();
+		nonNullControl.start(remaining.length);
+
+		AtomicInteger       nextBlock = new AtomicInteger();
+		ThreadLocal<Worker> workers   = ThreadLocal.withInitial(() -> new Worker(graph));
+		IntStream.range(0, ForkJoinPool.getCommonPoolParallelism() + 1)
+		         .parallel()
+		         .forEach(ignored -> {
+			         Worker worker = workers.get();
+			         for (int block = nextBlock.getAndIncrement(); block < numBlocks;
+			              block = nextBlock.getAndIncrement()) {
+				         int from = block * BLOCK_SIZE;
+				         int to   = Math.min(from + BLOCK_SIZE, remaining.length);
+				         int i    = from;
+				         while (i < to && !nonNullControl.shouldStop()) {
+					         worker.calculate(remaining[i], results, stageTimes);
+					         done[remaining[i]] = true;
+					         i++;
+				         }
+
+				         if (checkpoint != null)
+					         checkpoint.complete(remaining, from, i);
+				         if (progress != null)
+					         progress.complete(remaining, from, i);
+
+				         nonNullControl.advance(i - from);
+				         if (i < to)
+					         break;
+			         }
+		         });
+
+		for (double[] values : results) {
+			for (int node = 0; node < size; node++) {
+				int representative = twins.getRepresentative(twins.getClass(node));
+				values[node] = done[representative] ? values[representative] : Double.NaN;
+			}
+		}
+
+		boolean complete = nonNullControl.isComplete();
+		if (complete)
+			finish(results);
+
+		report(stageTimes);
+
+		if (checkpoint != null) {
+			try {
+				if (complete)
+					checkpoint.end();
+				else
+					checkpoint.suspend();
+			} catch (IOException ex) {
+				System.err.println("Failed to " + (complete ? "delete" : "save") + " checkpoint: " + ex);
+			}
+		}
+
+		return results;
+	}
+
+	private String[] getAbbreviations() {
+		String[] abbreviations = new String[calculators.length];
+		for (int i = 0; i < calculators.length; i++)
+			abbreviations[i] = calculators[i].getAbbreviation();
+
+		return abbreviations;
+	}
+
+	private LongAdder[] newStageTimes() {
+		LongAdder[] stageTimes = new LongAdder[calculators.length + 1];
+		for (int i = 0; i < stageTimes.length; i++)
+			stageTimes[i] = new LongAdder();
+
+		return stageTimes;
+	}
+
+	private void report(LongAdder[] stageTimes) {
+		if (needsBreadthFirstSearch)
+			Benchmark.recordPart("BFS", stageTimes[calculators.length].sum());
+		for (int i = 0; i < calculators.length; i++)
+			Benchmark.recordPart(calculators[i].getAbbreviation(), stageTimes[i].sum());
+	}
+
+	private void finish(double[][] results) {
+		for (int i = 0; i < calculators.length; i++)
+			calculators[i].finish(results[i]);
+	}
+
+	/**
+	 * Tracks which nodes are done, and passes the values of the longest completed prefix of nodes to the sink. A node
+	 * is done when its twin representative is done, and gets its values copied from there.
+	 */
+	private static final class Progress {
+		private final TwinClasses    twins;
+		private final double[][]     results;
+		private final boolean[]      done;
+		private final StatisticsSink sink;
+
+		private int next = 0;
+
+		Progress(String[] columnNames, TwinClasses twins, double[][] results, boolean[] done, StatisticsSink sink) {
+			this.twins = twins;
+			this.results = results;
+			this.done = done.clone();
+			this.sink = sink;
+
+			try {
+				sink.begin(columnNames, done.length);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+
+			advance();
+		}
+
+		synchronized void complete(int[] nodes, int from, int to) {
+			for (int i = from; i < to; i++)
+				done[nodes[i]] = true;
+
+			advance();
+		}
+
+		private void advance() {
+			int from = next;
+			while (next < done.length) {
+				int representative = twins.getRepresentative(twins.getClass(next));
+				if (!done[representative])
+					break;
+
+				if (representative != next)
+					for (double[] values : results)
+						values[next] = values[representative];
+
+				next++;
+			}
+
+			if (next > from) {
+				try {
+					sink.write(results, from, next);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}
+		}
+	}
+
+	private final class Worker {
+		private final SparseGraph        graph;
+		private final BreadthFirstSearch search;
+		private final NodeCalculator[]   nodeCalculators;
+
+		Worker(SparseGraph graph) {
+			this.graph = graph;
+			search = needsBreadthFirstSearch ? new BreadthFirstSearch(graph.size()) : null;
+
+			nodeCalculators = new NodeCalculator[calculators.length];
+			for (int i = 0; i < calculators.length; i++)
+				nodeCalculators[i] = calculators[i].newNodeCalculator(graph);
+		}
+
+		void calculate(int node, double[][] results, LongAdder[] stageTimes) {
+			long time = System.nanoTime();
+
+			if (search != null) {
+				search.search(graph, node);
+
+				long now = System.nanoTime();
+				stageTimes[calculators.length].add(now - time);
+				time = now;
+			}
+
+			for (int i = 0; i < nodeCalculators.length; i++) {
+				BreadthFirstSearch searchIfNeeded = needsBreadthFirstSearches[i] ? search : null;
+				results[i][node] = nodeCalculators[i].calculate(node, searchIfNeeded);
+
+				long now = System.nanoTime();
+				stageTimes[i].add(now - time);
+				time = now;
+			}
+		}
+	}
+}
@@ -1,15 +1,21 @@
 package org.digitalmodular.graphanalyzer;
 
-import java.io.BufferedWriter;
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import com.sun.istack.internal.Nullable;
 
 import org.digitalmodular.graphanalyzer.statistic.AveragePathLengthCalculator;
 import org.digitalmodular.graphanalyzer.statistic.BansalClusteringCoefficientCalculator;
+import org.digitalmodular.graphanalyzer.statistic.CalculationControl;
+import org.digitalmodular.graphanalyzer.statistic.EccentricityCalculator;
 import org.digitalmodular.graphanalyzer.statistic.NodeDegreeCalculator;
 import org.digitalmodular.graphanalyzer.statistic.SpreadingSpeedCalculator;
 import org.digitalmodular.graphapi.GraphIO;
@@ -27,8 +33,33 @@ public final class AnalyzeNodesMain {
 	private static final BansalClusteringCoefficientCalculator CC  = BansalClusteringCoefficientCalculator.INSTANCE;
 	private static final AveragePathLengthCalculator           APL = AveragePathLengthCalculator.INSTANCE;
 	private static final SpreadingSpeedCalculator              SS  = new SpreadingSpeedCalculator(1, 1, 1, 1);
+	private static final EccentricityCalculator                ECC = EccentricityCalculator.INSTANCE;
 
+	private static final AnalysisEngine ENGINE = new AnalysisEngine(ND, CC, APL, SS);
+
+	/** The part of the free heap that the estimated memory of concurrent analyses may use. */
+	private static final double MEMORY_FRACTION = 0.8;
+	/** Estimated memory of a line read by {@link Files#readAllLines(Path)}, excluding the characters. */
+	private static final long   LINE_OVERHEAD   = 64;
+
+	private static final long PROGRESS_INTERVAL_SECONDS = 10;
+
+	/**
+	 * @param args {@code -binary} to also write the statistics in binary, see {@link BinaryColumnWriter}.
+	 *             {@code -budget <seconds>} to stop calculating each graph after that time, leaving a partial
+	 *             statistics file and a checkpoint to continue from in the next run.
+	 */
 	public static void main(String... args) throws IOException, InterruptedException {
+		List<String> arguments   = Arrays.asList(args);
+		boolean      writeBinary = arguments.contains("-binary");
+		int          budgetIndex = arguments.indexOf("-budget");
+		if (budgetIndex >= 0 && budgetIndex == args.length - 1)
+			throw new IllegalArgumentException("-budget should be followed by a number of seconds");
+		long timeBudget = budgetIndex >= 0 ? Long.parseLong(args[budgetIndex + 1]) : 0;
+
+		// Delete this directory after changing a calculator without incrementing its result version
+		StatisticsCache cache = new StatisticsCache("graphstatistics/cache");
+
 		String[] filenames = Files.list(Paths.get("kanjigraphs"))
 //		                          .filter(path -> {
 //			                          try {
@@ -37,22 +68,62 @@ public final class AnalyzeNodesMain {
 //				                          return false;
 //			                          }
 //		                          })
-                                  .sorted(Comparator.comparingLong(path -> {
-	                                  try {
-		                                  return Files.size(path);
-	                                  } catch (IOException ignored) {
-		                                  return Long.MAX_VALUE;
-	                                  }
-                                  }))
                                   .map(Path::toString)
                                   .filter(filename -> filename.endsWith("-graph.conn"))
                                   .toArray(String[]::new);
 
-		for (String filename : filenames)
-			analyze(filename);
+		long           memoryBudget = BatchScheduler.getAvailableMemory(MEMORY_FRACTION);
+		int            numThreads   = Runtime.getRuntime().availableProcessors();
+		BatchScheduler scheduler    = new BatchScheduler(memoryBudget, numThreads);
+		System.out.println("Memory budget: " + (memoryBudget >> 20) + " MiB, " + numThreads + " threads");
+
+		for (String filename : filenames) {
+			long estimatedMemory = estimateMemory(Paths.get(filename));
+			scheduler.add(filename, estimatedMemory, () -> analyze(filename, cache, writeBinary, timeBudget));
+		}
+
+		scheduler.runAll();
 	}
 
-	private static void analyze(String filenameIn) throws IOException {
+	/**
+	 * Estimates the peak memory use of analyzing a graph file, from the size in its header and the length of the first
+	 * lines. Loading holds all lines as strings, and the graph is held twice (before and after taking the largest
+	 * subgraph) as a {@link NeighborGraph}, which takes about {@code 5·size²} bytes. The rest is linear in the size.
+	 */
+	private static long estimateMemory(Path file) throws IOException {
+		long   fileSize = Files.size(file);
+		int    size;
+		double averageLineLength;
+		try (BufferedReader in = Files.newBufferedReader(file)) {
+			String header = in.readLine();
+			if (header == null || !header.startsWith("Size:"))
+				throw new IOException("First line of file doesn't start with \"Size:\": " + file);
+
+			try {
+				size = Integer.parseInt(header.substring(5).trim());
+			} catch (NumberFormatException ignored) {
+				throw new IOException("Size is not an integer: \"" + header + '"');
+			}
+
+			long   numChars = header.length() + 1;
+			int    numLines = 1;
+			String line;
+			while (numLines < 1000 && (line = in.readLine()) != null) {
+				numChars += line.length() + 1;
+				numLines++;
+			}
+
+			averageLineLength = numChars / (double)numLines;
+		}
+
+		long numLines    = (long)(fileSize / averageLineLength);
+		long linesMemory = numLines * (LINE_OVERHEAD + 2 * (long)Math.ceil(averageLineLength));
+		long graphMemory = 5L * size * size;
+		return Math.max(linesMemory + graphMemory, 2 * graphMemory);
+	}
+
+	private static void analyze(String filenameIn, StatisticsCache cache, boolean writeBinary, long timeBudget)
+			throws IOException {
 		Benchmark.start();
 		NeighborGraph graph = GraphUtilities.toNeighborGraph(GraphIO.read(filenameIn));
 		Benchmark.record("load");
@@ -65,28 +136,38 @@ public final class AnalyzeNodesMain {
 		int size = graph.size();
 		Benchmark.record("subGraph");
 
-		double[] nd = ND.calculateAll(graph);
-		Benchmark.record("ND");
-		double[] cc = CC.calculateAll(graph);
-		Benchmark.record("CC");
-		double[] apl = APL.calculateAll(graph);
-		Benchmark.record("APL");
-		double[] ss = SS.calculateAll(graph);
-		Benchmark.record("SS");
-		Benchmark.printResults(size);
+		String hash = GraphUtilities.hashConnections(graph);
+		Benchmark.record("hash");
 
 		String filenameOut = makeFilename(filenameIn, "graphstatistics", "-statistics.tsv");
-		try (BufferedWriter out = Files.newBufferedWriter(Paths.get(filenameOut))) {
-			out.write("i\tDegree\tInterconnections\tCC\tAPL\tSS\n");
+		String binaryOut   = writeBinary ? makeFilename(filenameIn, "graphstatistics", "-statistics.bin") : null;
 
-			for (int i = 0; i < size; i++) {
-				int ic = (int)Math.rint(nd[i] * (nd[i] - 1) / 2 * cc[i]);
-				out.write(String.format("%d\t%d\t%d\t%7.5f\t%7.5f\t%7.5f\n", i,
-				                        (int)nd[i], ic, cc[i], apl[i], ss[i]));
-			}
+		CalculationControl control = new CalculationControl(
+				timeBudget, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS,
+				(numDone, numTotal, elapsedNanos, remainingNanos) ->
+						printProgress(filenameIn, numDone, numTotal, remainingNanos));
+
+		// Identical graphs run one after the other, so the second gets everything from the cache
+		synchronized (cache.getLock(hash)) {
+			double[] ecc = cache.computeIfAbsent(hash, graph, ECC);
+			Benchmark.record("ECC");
 
-			System.out.println(filenameIn + " -> " + filenameOut);
+			try (StatisticsFileWriter out = new StatisticsFileWriter(filenameOut, binaryOut, ecc)) {
+				ENGINE.analyze(graph, hash, cache, out, control);
+				Benchmark.record("statistics");
+			}
 		}
+
+		Benchmark.printResults(size);
+		System.out.println(filenameIn + " -> " + filenameOut);
+		if (!control.isComplete())
+			System.out.println("Time budget exceeded after " + control.getNumDone() + '/' + control.getNumTotal() +
+			                   " nodes, the statistics are incomplete. Run again to continue.");
+	}
+
+	private static void printProgress(String filename, int numDone, int numTotal, long remainingNanos) {
+		String remaining = remainingNanos < 0 ? "?" : Long.toString(TimeUnit.NANOSECONDS.toSeconds(remainingNanos));
+		System.out.println(filename + ": " + numDone + '/' + numTotal + " nodes, " + remaining + " s remaining");
 	}
 
 	private static String makeFilename(String filenameIn, CharSequence directory, CharSequence suffix) {
@@ -94,4 +175,68 @@ public final class AnalyzeNodesMain {
 		return filenameIn.replace("kanjigraphs", directory)
 		                 .replace("-graph.conn", suffix);
 	}
+
+	/**
+	 * Writes the rows of the statistics file as soon as the values arrive, and optionally all columns in binary.
+	 */
+	private static final class StatisticsFileWriter implements StatisticsSink, Closeable {
+		private final TsvWriter          tsv;
+		private final BinaryColumnWriter binary;
+		private final double[]           ecc;
+
+		private final double[][] binaryColumns = new double[5][];
+
+		StatisticsFileWriter(String filename, @Nullable String binaryFilename, double[] ecc) throws IOException {
+			tsv = new TsvWriter(Files.newBufferedWriter(Paths.get(filename)));
+			binary = binaryFilename != null ? new BinaryColumnWriter(Paths.get(binaryFilename)) : null;
+			this.ecc = ecc;
+		}
+
+		@Override
+		public void begin(String[] columnNames, int size) throws IOException {
+			tsv.append("i\tDegree\tInterconnections\tCC\tAPL\tSS\tECC\n");
+
+			if (binary != null)
+				binary.begin(new String[]{ND.getAbbreviation(), CC.getAbbreviation(), APL.getAbbreviation(),
+				                          SS.getAbbreviation(), ECC.getAbbreviation()}, size);
+		}
+
+		@Override
+		public void write(double[][] columns, int from, int to) throws IOException {
+			double[] nd  = columns[0];
+			double[] cc  = columns[1];
+			double[] apl = columns[2];
+			double[] ss  = columns[3];
+
+			for (int i = from; i < to; i++) {
+				int ic = (int)Math.rint(nd[i] * (nd[i] - 1) / 2 * cc[i]);
+				tsv.appendInt(i).tab()
+				   .appendInt((int)nd[i]).tab()
+				   .appendInt(ic).tab()
+				   .appendFixed(cc[i], 7, 5).tab()
+				   .appendFixed(apl[i], 7, 5).tab()
+				   .appendFixed(ss[i], 7, 5).tab()
+				   .appendInt((int)ecc[i]).newLine();
+			}
+
+			// Make the rows available to readers of the file while the calculation continues
+			tsv.flush();
+
+			if (binary != null) {
+				System.arraycopy(columns, 0, binaryColumns, 0, 4);
+				binaryColumns[4] = ecc;
+				binary.write(binaryColumns, from, to);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				tsv.close();
+			} finally {
+				if (binary != null)
+					binary.close();
+			}
+		}
+	}
 }
@@ -0,0 +1,207 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs a batch of jobs concurrently, as far as their estimated memory use allows. Small jobs use little of the
+ * machine on their own, while big jobs would run out of memory when run together.
+ * <p>
+ * Jobs are started largest first (by estimated memory), which shortens the total run time because the small jobs
+ * fill the gaps at the end. When a job finishes, the largest waiting job that fits in the remaining budget is started.
+ * A job that is larger than the whole budget is started when nothing else is running, so it still gets the best
+ * chance to succeed.
+ * <p>
+ * Jobs may be parallel themselves, e.g. with parallel streams. Those share the common pool, so running several jobs
+ * at once doesn't oversubscribe the processors.
+ * <p>
+ * Not Thread-safe.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class BatchScheduler {
+	private final long memoryBudget;
+	private final int  maxConcurrentJobs;
+
+	private final List<Job>       pending  = new ArrayList<>(64);
+	private final List<Throwable> failures = new ArrayList<>(4);
+
+	private long memoryInUse = 0;
+	private int  numRunning  = 0;
+
+	/**
+	 * @param memoryBudget      The total estimated memory of concurrent jobs, in bytes.
+	 * @param maxConcurrentJobs The maximum number of concurrent jobs.
+	 */
+	public BatchScheduler(long memoryBudget, int maxConcurrentJobs) {
+		if (memoryBudget <= 0)
+			throw new IllegalArgumentException("'memoryBudget' should be positive: " + memoryBudget);
+		if (maxConcurrentJobs < 1)
+			throw new IllegalArgumentException("'maxConcurrentJobs' should be at least 1: " + maxConcurrentJobs);
+
+		this.memoryBudget = memoryBudget;
+		this.maxConcurrentJobs = maxConcurrentJobs;
+	}
+
+	/**
+	 * The memory that's free after subtracting what's in use now, with a safety margin for memory that's not
+	 * estimated.
+	 */
+	public static long getAvailableMemory(double fraction) {
+		if (fraction <= 0 || fraction > 1)
+			throw new IllegalArgumentException("'fraction' should be in the range (0, 1]: " + fraction);
+
+		Runtime runtime = Runtime.getRuntime();
+		long    used    = runtime.totalMemory() - runtime.freeMemory();
+		return (long)((runtime.maxMemory() - used) * fraction);
+	}
+
+	public void add(String name, long estimatedMemory, Task task) {
+		requireNonNull(name);
+		requireNonNull(task);
+		if (estimatedMemory < 0)
+			throw new IllegalArgumentException("'estimatedMemory' should be non-negative: " + estimatedMemory);
+
+		pending.add(new Job(name, estimatedMemory, task));
+	}
+
+	/**
+	 * Runs all jobs added so far and waits for them. A failing job doesn't stop the others.
+	 *
+	 * @throws IOException when a job failed with an {@link IOException}. Other failures are rethrown as they are.
+	 *                     Failures of other jobs are added as suppressed exceptions.
+	 */
+	public void runAll() throws IOException, InterruptedException {
+		if (pending.isEmpty())
+			return;
+
+		pending.sort(Comparator.comparingLong((Job job) -> job.estimatedMemory).reversed());
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrentJobs, pending.size()));
+		try {
+			synchronized (this) {
+				while (!pending.isEmpty()) {
+					Job job = takeNextJob();
+					if (job == null) {
+						wait();
+						continue;
+					}
+
+					memoryInUse += job.estimatedMemory;
+					numRunning++;
+					executor.execute(() -> run(job));
+				}
+
+				while (numRunning > 0)
+					wait();
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+
+		rethrowFailures();
+	}
+
+	/**
+	 * @return The largest pending job that fits, or {@code null} if none can start now.
+	 */
+	private Job takeNextJob() {
+		if (numRunning >= maxConcurrentJobs)
+			return null;
+		if (numRunning == 0)
+			return pending.remove(0);
+
+		for (int i = 0; i < pending.size(); i++)
+			if (memoryInUse + pending.get(i).estimatedMemory <= memoryBudget)
+				return pending.remove(i);
+
+		return null;
+	}
+
+	private void run(Job job) {
+		try {
+			job.task.run();
+		} catch (Throwable th) {
+			System.err.println("Job failed: " + job.name + ": " + th);
+			synchronized (this) {
+				failures.add(th);
+			}
+		} finally {
+			synchronized (this) {
+				memoryInUse -= job.estimatedMemory;
+				numRunning--;
+				notifyAll();
+			}
+		}
+	}
+
+	private void rethrowFailures() throws IOException {
+		if (failures.isEmpty())
+			return;
+
+		Throwable first = failures.get(0);
+		for (int i = 1; i < failures.size(); i++)
+			first.addSuppressed(failures.get(i));
+
+		failures.clear();
+		if (first instanceof IOException)
+			throw (IOException)first;
+		if (first instanceof RuntimeException)
+			throw (RuntimeException)first;
+		if (first instanceof Error)
+			throw (Error)first;
+
+		throw new AssertionError(first);
+	}
+
+	@FunctionalInterface
+	public interface Task {
+		void run() throws IOException;
+	}
+
+	private static final class Job {
+		private final String name;
+		private final long   estimatedMemory;
+		private final Task   task;
+
+		Job(String name, long estimatedMemory, Task task) {
+			this.name = name;
+			this.estimatedMemory = estimatedMemory;
+			this.task = task;
+		}
+	}
+}
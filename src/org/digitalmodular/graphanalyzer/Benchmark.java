@@ -37,32 +37,64 @@ import java.util.List;
 public final class Benchmark {
 	private Benchmark() { throw new AssertionError(); }
 
-	private static final List<Long>   times              = new ArrayList<>(16);
-	private static final List<String> descriptions       = new ArrayList<>(16);
-	private static       int          longestDescription = 0;
+	/** Each thread has its own recording, so concurrent jobs (see {@link BatchScheduler}) don't mix. */
+	private static final ThreadLocal<Recording> recordings = ThreadLocal.withInitial(Recording::new);
 
 	public static void start() {
-		times.clear();
-		descriptions.clear();
-		longestDescription = 0;
+		Recording recording = recordings.get();
+		recording.durations.clear();
+		recording.descriptions.clear();
+		recording.longestDescription = 0;
 
-		times.add(System.nanoTime());
+		recording.lastTime = System.nanoTime();
 	}
 
 	public static void record(String description) {
-		descriptions.add(description);
-		longestDescription = Math.max(longestDescription, description.length());
+		Recording recording = recordings.get();
 
-		times.add(System.nanoTime());
+		long time = System.nanoTime();
+		add(description, time - recording.lastTime);
+		recording.lastTime = time;
 	}
 
+	/**
+	 * Records a duration that was measured separately, for example a stage of a parallel computation summed over all
+	 * threads. Doesn't restart the clock, so the next {@link #record(String)} still includes this duration.
+	 */
+	public static void recordPart(String description, long durationNanos) {
+		add("  " + description, durationNanos);
+	}
+
+	private static void add(String description, long durationNanos) {
+		Recording recording = recordings.get();
+		recording.descriptions.add(description);
+		recording.longestDescription = Math.max(recording.longestDescription, description.length());
+
+		recording.durations.add(durationNanos);
+	}
+
+	/**
+	 * Prints all results in one go, so they're not interleaved with the output of other threads.
+	 */
 	public static void printResults(int workSize) {
-		String formatString = "%-" + longestDescription + "s(%d) %,9.3f (%f·N)\n";
-		for (int i = 0; i < descriptions.size(); i++) {
-			double duration            = (times.get(i + 1) - times.get(i)) / 1.0e9;
+		Recording recording = recordings.get();
+
+		String        formatString = "%-" + recording.longestDescription + "s(%d) %,9.3f (%f·N)\n";
+		StringBuilder results      = new StringBuilder(recording.descriptions.size() * 64);
+		for (int i = 0; i < recording.descriptions.size(); i++) {
+			double duration            = recording.durations.get(i) / 1.0e9;
 			double durationPerWorkUnit = duration / workSize;
-			String description         = descriptions.get(i);
-			System.out.printf(formatString, description, workSize, duration, durationPerWorkUnit);
+			String description         = recording.descriptions.get(i);
+			results.append(String.format(formatString, description, workSize, duration, durationPerWorkUnit));
 		}
+
+		System.out.print(results);
+	}
+
+	private static final class Recording {
+		private final List<Long>   durations          = new ArrayList<>(16);
+		private final List<String> descriptions       = new ArrayList<>(16);
+		private       long         lastTime           = 0;
+		private       int          longestDescription = 0;
 	}
 }
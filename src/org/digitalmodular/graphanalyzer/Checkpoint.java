@@ -0,0 +1,256 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Periodically saves the per-node values of a running analysis to a binary sidecar file, so a run that's interrupted
+ * (crash, preempted batch job) can resume where it left off instead of starting over.
+ * <p>
+ * Only the completed nodes are saved, as ranges of consecutive node indices, each followed by the values of every
+ * statistic for those nodes. The file starts with a key that identifies the graph and the statistics, and a file
+ * with a different key is ignored.
+ * <p>
+ * Saving happens when a worker reports completed nodes and the interval has passed since the last save, and once more
+ * when the JVM shuts down before the run is finished (e.g. on {@code SIGTERM}). Files are written under a temporary
+ * name and then renamed, so a crash during saving leaves the previous checkpoint intact.
+ * <p>
+ * Thread-safe.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class Checkpoint {
+	private static final int MAGIC   = 0x434B5054; // "CKPT"
+	private static final int VERSION = 1;
+
+	private final Path   file;
+	private final String key;
+	private final long   intervalNanos;
+
+	private double[][] results      = null;
+	private boolean[]  done         = null;
+	private long       lastSave     = 0;
+	private Thread     shutdownHook = null;
+
+	/**
+	 * @param key Identifies the graph and the statistics, e.g. from {@link StatisticsCache}.
+	 */
+	public Checkpoint(Path file, String key, long interval, TimeUnit unit) {
+		this.file = requireNonNull(file);
+		this.key = requireNonNull(key);
+		intervalNanos = unit.toNanos(interval);
+		if (intervalNanos <= 0)
+			throw new IllegalArgumentException("'interval' should be positive: " + interval);
+	}
+
+	/**
+	 * Starts tracking a run, and restores the values of the nodes completed in a previous run.
+	 *
+	 * @param results The arrays the run writes the values into, one per statistic.
+	 * @return Per node, whether it was restored and doesn't need to be calculated again.
+	 */
+	public synchronized boolean[] begin(double[][] results) {
+		this.results = requireNonNull(results);
+		done = new boolean[results[0].length];
+		lastSave = System.nanoTime();
+
+		int numRestored = load();
+		if (numRestored > 0)
+			System.out.println("Resuming from " + file + " (" + numRestored + " nodes done)");
+
+		shutdownHook = new Thread(this::saveOnShutdown, "Checkpoint");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+		return done.clone();
+	}
+
+	/**
+	 * Marks nodes as completed. Their values in the result arrays must be final.
+	 * <p>
+	 * Saving is best-effort: when it fails (e.g. the disk is full), the failure is logged and the save is retried
+	 * after the next interval, while the run continues.
+	 */
+	public synchronized void complete(int[] nodes, int from, int to) {
+		for (int i = from; i < to; i++)
+			done[nodes[i]] = true;
+
+		if (System.nanoTime() - lastSave >= intervalNanos) {
+			try {
+				save();
+			} catch (IOException ex) {
+				System.err.println("Failed to save checkpoint " + file + ", retrying later: " + ex);
+				lastSave = System.nanoTime();
+			}
+		}
+	}
+
+	/**
+	 * Stops tracking and deletes the checkpoint, as the results are complete.
+	 */
+	public synchronized void end() throws IOException {
+		Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		shutdownHook = null;
+		results = null;
+		done = null;
+
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Stops tracking and saves the checkpoint, as the run stopped before the results were complete. A later run
+	 * resumes from it.
+	 */
+	public synchronized void suspend() throws IOException {
+		Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		shutdownHook = null;
+
+		try {
+			save();
+		} finally {
+			results = null;
+			done = null;
+		}
+	}
+
+	private synchronized void saveOnShutdown() {
+		if (done == null)
+			return;
+
+		try {
+			save();
+			System.err.println("Saved checkpoint " + file);
+		} catch (IOException ex) {
+			System.err.println("Failed to save checkpoint " + file + ": " + ex);
+		}
+	}
+
+	private int load() {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(key))
+				return 0;
+			if (in.readInt() != done.length || in.readInt() != results.length)
+				return 0;
+
+			// Read everything before restoring anything, so a truncated file restores nothing
+			int        numRanges = in.readInt();
+			int[]      starts    = new int[numRanges];
+			int[]      ends      = new int[numRanges];
+			double[][] values    = new double[numRanges][];
+			for (int range = 0; range < numRanges; range++) {
+				starts[range] = in.readInt();
+				ends[range] = in.readInt();
+				if (starts[range] < 0 || ends[range] > done.length || starts[range] >= ends[range])
+					return 0;
+
+				values[range] = new double[(ends[range] - starts[range]) * results.length];
+				for (int i = 0; i < values[range].length; i++)
+					values[range][i] = in.readDouble();
+			}
+
+			int numRestored = 0;
+			for (int range = 0; range < numRanges; range++) {
+				int length = ends[range] - starts[range];
+				for (int statistic = 0; statistic < results.length; statistic++)
+					System.arraycopy(values[range], statistic * length, results[statistic], starts[range], length);
+				for (int node = starts[range]; node < ends[range]; node++)
+					done[node] = true;
+
+				numRestored += length;
+			}
+
+			return numRestored;
+		} catch (NoSuchFileException ignored) {
+			return 0;
+		} catch (IOException ex) {
+			System.err.println("Ignoring unreadable checkpoint " + file + ": " + ex);
+			return 0;
+		}
+	}
+
+	private void save() throws IOException {
+		Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(key);
+				out.writeInt(done.length);
+				out.writeInt(results.length);
+
+				out.writeInt(countRanges());
+				int start = nextRange(0);
+				while (start < done.length) {
+					int end = start;
+					while (end < done.length && done[end])
+						end++;
+
+					out.writeInt(start);
+					out.writeInt(end);
+					for (double[] values : results)
+						for (int node = start; node < end; node++)
+							out.writeDouble(values[node]);
+
+					start = nextRange(end);
+				}
+			}
+
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+
+		lastSave = System.nanoTime();
+	}
+
+	private int countRanges() {
+		int numRanges = 0;
+		for (int node = 0; node < done.length; node++)
+			if (done[node] && (node == 0 || !done[node - 1]))
+				numRanges++;
+
+		return numRanges;
+	}
+
+	private int nextRange(int node) {
+		while (node < done.length && !done[node])
+			node++;
+
+		return node;
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash set of non-negative {@code long} keys, used as a fast membership test for connections
+ * ({@link #key(int, int)}) without boxing. Linear probing with backward-shift deletion, so removals leave no
+ * tombstones behind.
+ * <p>
+ * Not Thread-safe.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+final class EdgeSet {
+	private static final long   EMPTY        = -1;
+	private static final long   GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	private static final double MAX_LOAD     = 0.5;
+
+	private long[] keys;
+	private int    mask;
+	private int    shift;
+	private int    count = 0;
+
+	EdgeSet(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(16, (int)Math.min(1 << 30, expectedSize / MAX_LOAD)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	/** Packs a connection into a key. The order of the nodes doesn't matter. */
+	static long key(int x, int y) {
+		return x < y ? (long)x << 32 | y : (long)y << 32 | x;
+	}
+
+	static int lowNode(long key)  { return (int)(key >>> 32); }
+
+	static int highNode(long key) { return (int)key; }
+
+	int size() { return count; }
+
+	boolean contains(long key) {
+		for (int i = slot(key); ; i = (i + 1) & mask) {
+			if (keys[i] == key)
+				return true;
+			if (keys[i] == EMPTY)
+				return false;
+		}
+	}
+
+	/**
+	 * @return {@code true} if the key was not yet present.
+	 */
+	boolean add(long key) {
+		assert key >= 0 : key;
+
+		int i = slot(key);
+		for (; keys[i] != EMPTY; i = (i + 1) & mask)
+			if (keys[i] == key)
+				return false;
+
+		keys[i] = key;
+		count++;
+		if (count > keys.length * MAX_LOAD)
+			rehash();
+
+		return true;
+	}
+
+	/**
+	 * @return {@code true} if the key was present.
+	 */
+	boolean remove(long key) {
+		int i = slot(key);
+		for (; keys[i] != key; i = (i + 1) & mask)
+			if (keys[i] == EMPTY)
+				return false;
+
+		// Shift following keys back into the hole as long as that doesn't move them before their home slot
+		for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+			int home = slot(keys[j]);
+			if (((j - home) & mask) >= ((j - i) & mask)) {
+				keys[i] = keys[j];
+				i = j;
+			}
+		}
+
+		keys[i] = EMPTY;
+		count--;
+		return true;
+	}
+
+	void forEach(LongConsumer action) {
+		for (long key : keys)
+			if (key != EMPTY)
+				action.accept(key);
+	}
+
+	private int slot(long key) {
+		return (int)((key * GOLDEN_GAMMA) >>> shift);
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		allocate(oldKeys.length * 2);
+		for (long key : oldKeys) {
+			if (key != EMPTY) {
+				int i = slot(key);
+				while (keys[i] != EMPTY)
+					i = (i + 1) & mask;
+
+				keys[i] = key;
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		mask = capacity - 1;
+		shift = Long.numberOfLeadingZeros(mask);
+	}
+}
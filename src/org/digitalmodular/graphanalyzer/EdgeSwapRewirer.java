@@ -0,0 +1,256 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.CompactGraph;
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Maslov, S., Sneppen, K. (2002), ‘Specificity and stability in topology of protein networks’, Science 296(5569),
+ * 910–913.
+ * <p>
+ * Markov chain that randomizes a graph while keeping every node's degree: two connections {@code a-b} and
+ * {@code c-d} are replaced by {@code a-d} and {@code c-b}, unless that would create a self-loop or a duplicate
+ * connection. The connections are kept in two arrays, with an {@link EdgeSet} as membership test.
+ * <p>
+ * Mixing is measured in accepted swaps per connection, and by the fraction of the original connections that are
+ * still present. That fraction drops towards the density of the graph as the chain mixes.
+ * <p>
+ * Not Thread-safe. Use {@link #newEnsemble(SparseGraph, int, double, long)} to run independent chains in parallel.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class EdgeSwapRewirer {
+	/** Gives up when a graph has (almost) no valid swaps, like complete or star-like graphs. */
+	private static final int MAX_ATTEMPTS_PER_SWAP = 100;
+
+	private final int              size;
+	private final int[]            lowNodes;
+	private final int[]            highNodes;
+	private final EdgeSet          connections;
+	private final EdgeSet          originalConnections;
+	private final SplittableRandom random;
+
+	private long numAttempts            = 0;
+	private long numSwaps               = 0;
+	private int  numOriginalConnections;
+
+	public EdgeSwapRewirer(SparseGraph graph, long seed) {
+		requireNonNull(graph);
+
+		size = graph.size();
+
+		int numConnections = 0;
+		for (int node = 0; node < size; node++)
+			numConnections += graph.numNeighbors(node);
+		numConnections /= 2;
+
+		lowNodes = new int[numConnections];
+		highNodes = new int[numConnections];
+		connections = new EdgeSet(numConnections);
+		originalConnections = new EdgeSet(numConnections);
+		random = new SplittableRandom(seed);
+
+		int i = 0;
+		for (int node = 0; node < size; node++) {
+			int numNeighbors = graph.numNeighbors(node);
+			for (int j = 0; j < numNeighbors; j++) {
+				int neighbor = graph.getNeighbor(node, j);
+				if (neighbor > node) {
+					lowNodes[i] = node;
+					highNodes[i] = neighbor;
+					connections.add(EdgeSet.key(node, neighbor));
+					originalConnections.add(EdgeSet.key(node, neighbor));
+					i++;
+				}
+			}
+		}
+
+		numOriginalConnections = numConnections;
+	}
+
+	/**
+	 * Generates independent degree-preserving randomizations of a graph, each from its own chain. The chains run in
+	 * parallel and the result for each index only depends on the seed.
+	 */
+	public static Stream<CompactGraph> newEnsemble(SparseGraph graph,
+	                                               int numGraphs,
+	                                               double swapsPerConnection,
+	                                               long seed) {
+		requireNonNull(graph);
+		if (numGraphs < 0)
+			throw new IllegalArgumentException("'numGraphs' can't be negative: " + numGraphs);
+
+		SplittableRandom random = new SplittableRandom(seed);
+		long[]           seeds  = random.longs(numGraphs).toArray();
+
+		return IntStream.range(0, numGraphs).parallel().mapToObj(i -> {
+			EdgeSwapRewirer rewirer = new EdgeSwapRewirer(graph, seeds[i]);
+			rewirer.rewire(swapsPerConnection);
+			return rewirer.toGraph();
+		});
+	}
+
+	/**
+	 * Like {@link #newEnsemble(SparseGraph, int, double, long)}, but generates lattice references with
+	 * {@link #latticize(double)}.
+	 */
+	public static Stream<CompactGraph> newLatticeEnsemble(SparseGraph graph,
+	                                                      int numGraphs,
+	                                                      double swapsPerConnection,
+	                                                      long seed) {
+		requireNonNull(graph);
+		if (numGraphs < 0)
+			throw new IllegalArgumentException("'numGraphs' can't be negative: " + numGraphs);
+
+		SplittableRandom random = new SplittableRandom(seed);
+		long[]           seeds  = random.longs(numGraphs).toArray();
+
+		return IntStream.range(0, numGraphs).parallel().mapToObj(i -> {
+			EdgeSwapRewirer rewirer = new EdgeSwapRewirer(graph, seeds[i]);
+			rewirer.latticize(swapsPerConnection);
+			return rewirer.toGraph();
+		});
+	}
+
+	/**
+	 * Performs swaps until the given number of swaps per connection have been accepted (on top of earlier calls).
+	 * Typically, 10 swaps per connection are enough to mix.
+	 */
+	public void rewire(double swapsPerConnection) {
+		swap(swapsPerConnection, false);
+	}
+
+	/**
+	 * Sporns, O., Zwi, J.D. (2004), ‘The small world of the cerebral cortex’, Neuroinformatics 2(2), 145–162.
+	 * <p>
+	 * Like {@link #rewire(double)}, but only accepts swaps that bring connections closer to the diagonal of the
+	 * adjacency matrix, with node indices placed on a ring. This turns the graph into a lattice with the same degrees.
+	 * Valid swaps become rare as the graph approaches a lattice, so this often stops at the attempt limit.
+	 */
+	public void latticize(double swapsPerConnection) {
+		swap(swapsPerConnection, true);
+	}
+
+	private void swap(double swapsPerConnection, boolean towardsLattice) {
+		if (!(swapsPerConnection >= 0))
+			throw new IllegalArgumentException("'swapsPerConnection' can't be negative: " + swapsPerConnection);
+
+		int numConnections = lowNodes.length;
+		if (numConnections < 2)
+			return;
+
+		long targetSwaps = numSwaps + (long)Math.ceil(swapsPerConnection * numConnections);
+		long maxAttempts = numAttempts + (targetSwaps - numSwaps) * MAX_ATTEMPTS_PER_SWAP;
+		while (numSwaps < targetSwaps && numAttempts < maxAttempts) {
+			numAttempts++;
+
+			int i = random.nextInt(numConnections);
+			int j = random.nextInt(numConnections);
+			if (i == j)
+				continue;
+
+			int a = lowNodes[i];
+			int b = highNodes[i];
+			int c = lowNodes[j];
+			int d = highNodes[j];
+			if (random.nextBoolean()) {
+				int temp = c;
+				c = d;
+				d = temp;
+			}
+
+			if (a == d || c == b)
+				continue;
+			if (towardsLattice &&
+			    ringDistance(a, d) + ringDistance(c, b) >= ringDistance(a, b) + ringDistance(c, d))
+				continue;
+
+			long newKey1 = EdgeSet.key(a, d);
+			long newKey2 = EdgeSet.key(c, b);
+			if (connections.contains(newKey1) || connections.contains(newKey2))
+				continue;
+
+			long oldKey1 = EdgeSet.key(a, b);
+			long oldKey2 = EdgeSet.key(c, d);
+			connections.remove(oldKey1);
+			connections.remove(oldKey2);
+			connections.add(newKey1);
+			connections.add(newKey2);
+
+			numOriginalConnections += countOriginal(newKey1) + countOriginal(newKey2) -
+			                          countOriginal(oldKey1) - countOriginal(oldKey2);
+
+			setConnection(i, a, d);
+			setConnection(j, c, b);
+			numSwaps++;
+		}
+	}
+
+	public long getNumAttempts() { return numAttempts; }
+
+	public long getNumSwaps()    { return numSwaps; }
+
+	public double getSwapsPerConnection() {
+		return lowNodes.length == 0 ? 0 : (double)numSwaps / lowNodes.length;
+	}
+
+	/**
+	 * @return The fraction of the original connections that are still present, or NaN if there are no connections.
+	 */
+	public double getOriginalConnectionFraction() {
+		return (double)numOriginalConnections / lowNodes.length;
+	}
+
+	public CompactGraph toGraph() {
+		CompactGraph.Builder builder = new CompactGraph.Builder(size);
+		for (int i = 0; i < lowNodes.length; i++)
+			builder.addConnection(lowNodes[i], highNodes[i]);
+
+		return builder.build();
+	}
+
+	private int ringDistance(int x, int y) {
+		int distance = Math.abs(x - y);
+		return Math.min(distance, size - distance);
+	}
+
+	private int countOriginal(long key) {
+		return originalConnections.contains(key) ? 1 : 0;
+	}
+
+	private void setConnection(int index, int x, int y) {
+		lowNodes[index] = Math.min(x, y);
+		highNodes[index] = Math.max(x, y);
+	}
+}
@@ -26,11 +26,17 @@
  */
 package org.digitalmodular.graphanalyzer;
 
+import java.util.Arrays;
+import java.util.SplittableRandom;
 import java.util.concurrent.ThreadLocalRandom;
 
+import org.digitalmodular.graphapi.CompactGraph;
 import org.digitalmodular.graphapi.NeighborGraph;
 
 /**
+ * The null-model generators build straight into a {@link CompactGraph} and are deterministic given the seed, so
+ * ensembles of thousands of graphs can be generated (and regenerated) cheaply.
+ *
  * @author Mark Jeronimus
  */
 // Created 2018-02-04
@@ -38,23 +44,240 @@ public final class GraphFactory {
 	private GraphFactory() { throw new AssertionError(); }
 
 	public static NeighborGraph newRandomGraph(int size, int numConnections) {
+		return new NeighborGraph(newUniformRandomGraph(size, numConnections, ThreadLocalRandom.current().nextLong()));
+	}
+
+	/**
+	 * Batagelj, V., Brandes, U. (2005), ‘Efficient generation of large random networks’, Physical Review E 71(3),
+	 * 036113.
+	 * <p>
+	 * Erdős–Rényi G(n, p): every connection exists independently with the given probability. Instead of drawing a
+	 * random number for every pair of nodes, draws the geometrically distributed number of pairs to skip, so the
+	 * running time is linear in the number of connections.
+	 */
+	public static CompactGraph newBinomialRandomGraph(int size, double probability, long seed) {
+		if (size < 1)
+			throw new IllegalArgumentException("size should be at least 1: " + size);
+		if (!(probability >= 0 && probability <= 1))
+			throw new IllegalArgumentException("'probability' should be in the range [0, 1]: " + probability);
+
+		CompactGraph.Builder builder = new CompactGraph.Builder(size);
+		if (probability == 0)
+			return builder.build();
+
+		SplittableRandom random  = new SplittableRandom(seed);
+		double           logSkip = Math.log(1 - probability);
+
+		int  y = 1;
+		long x = -1;
+		while (y < size) {
+			double skip = Math.floor(Math.log(1 - random.nextDouble()) / logSkip);
+			x += 1 + (long)Math.min(skip, (double)size * size);
+			while (x >= y && y < size) {
+				x -= y;
+				y++;
+			}
+
+			if (y < size)
+				builder.addConnection((int)x, y);
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Erdős–Rényi G(n, m): a uniformly chosen graph with exactly the given number of connections. Samples distinct
+	 * pair indices with Floyd's algorithm, which needs exactly one random number per connection. Above half density,
+	 * samples the missing connections instead.
+	 */
+	public static CompactGraph newUniformRandomGraph(int size, long numConnections, long seed) {
+		if (size < 1)
+			throw new IllegalArgumentException("size should be at least 1: " + size);
+		long numPairs = (long)size * (size - 1) / 2;
+		if (numConnections < 0 || numConnections > numPairs)
+			throw new IllegalArgumentException("'numConnections' should be in the range [0, " + numPairs + "]: " +
+			                                   numConnections);
+
+		SplittableRandom random     = new SplittableRandom(seed);
+		boolean          complement = numConnections > numPairs / 2;
+		long             numSamples = complement ? numPairs - numConnections : numConnections;
+
+		EdgeSet pairs = new EdgeSet((int)numSamples);
+		for (long j = numPairs - numSamples; j < numPairs; j++) {
+			long pair = random.nextLong(j + 1);
+			if (!pairs.add(pair))
+				pairs.add(j);
+		}
+
+		CompactGraph.Builder builder = new CompactGraph.Builder(size);
+		if (complement) {
+			long pair = 0;
+			for (int y = 1; y < size; y++)
+				for (int x = 0; x < y; x++, pair++)
+					if (!pairs.contains(pair))
+						builder.addConnection(x, y);
+		} else {
+			pairs.forEach(pair -> {
+				// Invert pair = y * (y - 1) / 2 + x, correcting for rounding of the square root
+				int y = (int)((1 + Math.sqrt(1 + 8.0 * pair)) / 2);
+				while ((long)y * (y - 1) / 2 > pair)
+					y--;
+				while ((long)(y + 1) * y / 2 <= pair)
+					y++;
+
+				builder.addConnection((int)(pair - (long)y * (y - 1) / 2), y);
+			});
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Molloy, M., Reed, B. (1995), ‘A critical point for random graphs with a given degree sequence’, Random
+	 * Structures &amp; Algorithms 6(2–3), 161–180.
+	 * <p>
+	 * Erased configuration model: every node gets as many stubs as its degree and the shuffled stubs are paired up.
+	 * Self-loops and duplicate connections are dropped, so high degrees can come out slightly lower than requested.
+	 */
+	public static CompactGraph newConfigurationModelGraph(int[] degrees, long seed) {
+		int  size     = degrees.length;
+		long numStubs = 0;
+		for (int node = 0; node < size; node++) {
+			if (degrees[node] < 0 || degrees[node] >= size)
+				throw new IllegalArgumentException("degrees[" + node + "] should be in the range [0, " + (size - 1) +
+				                                   "]: " + degrees[node]);
+
+			numStubs += degrees[node];
+		}
+		if ((numStubs & 1) != 0)
+			throw new IllegalArgumentException("The sum of degrees should be even: " + numStubs);
+		if (numStubs > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Too many stubs: " + numStubs);
+
+		int[] stubs = new int[(int)numStubs];
+		int   i     = 0;
+		for (int node = 0; node < size; node++)
+			for (int d = 0; d < degrees[node]; d++)
+				stubs[i++] = node;
+
+		SplittableRandom random = new SplittableRandom(seed);
+		for (i = stubs.length - 1; i > 0; i--) {
+			int j    = random.nextInt(i + 1);
+			int temp = stubs[i];
+			stubs[i] = stubs[j];
+			stubs[j] = temp;
+		}
+
+		CompactGraph.Builder builder = new CompactGraph.Builder(size);
+		for (i = 0; i < stubs.length; i += 2)
+			builder.addConnection(stubs[i], stubs[i + 1]);
+
+		return builder.build();
+	}
+
+	/**
+	 * Watts, D.J., Strogatz, S.H. (1998), ‘Collective dynamics of ‘small-world’ networks’, Nature 393(6684), 440–442.
+	 * <p>
+	 * Starts with a ring where every node is connected to its {@code meanDegree / 2} nearest nodes on either side.
+	 * Then, for every node and ring distance, the connection to the clockwise node is moved to a uniformly chosen node
+	 * with the given probability, avoiding self-loops and duplicates.
+	 */
+	public static CompactGraph newWattsStrogatzGraph(int size, int meanDegree, double rewiringProbability, long seed) {
 		if (size < 1)
 			throw new IllegalArgumentException("size should be at least 1: " + size);
-		if (numConnections < 0 || numConnections > size * (size - 1) / 2)
-			throw new IllegalArgumentException("'numConnections' should be in the range [0, " +
-			                                   (size * (size - 1) / 2) + "]: " + size);
-
-		NeighborGraph graph = new NeighborGraph(size);
-		for (int i = 0; i < numConnections; i++) {
-			int x;
-			int y;
-			do {
-				x = ThreadLocalRandom.current().nextInt(size);
-				y = ThreadLocalRandom.current().nextInt(size);
-			} while (x == y || graph.isConnected(x, y));
-
-			graph.setConnection(x, y);
+		if (meanDegree < 0 || meanDegree >= size || (meanDegree & 1) != 0)
+			throw new IllegalArgumentException("'meanDegree' should be even and in the range [0, " + (size - 1) +
+			                                   "]: " + meanDegree);
+		if (!(rewiringProbability >= 0 && rewiringProbability <= 1))
+			throw new IllegalArgumentException("'rewiringProbability' should be in the range [0, 1]: " +
+			                                   rewiringProbability);
+
+		int halfDegree = meanDegree / 2;
+
+		EdgeSet connections = new EdgeSet(size * halfDegree);
+		int[]   degrees     = new int[size];
+		for (int distance = 1; distance <= halfDegree; distance++)
+			for (int x = 0; x < size; x++)
+				connections.add(EdgeSet.key(x, (x + distance) % size));
+		Arrays.fill(degrees, meanDegree);
+
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int distance = 1; distance <= halfDegree; distance++) {
+			for (int x = 0; x < size; x++) {
+				if (random.nextDouble() >= rewiringProbability || degrees[x] == size - 1)
+					continue;
+
+				int  y   = (x + distance) % size;
+				long key = EdgeSet.key(x, y);
+				if (!connections.contains(key))
+					continue;
+
+				int z;
+				do {
+					z = random.nextInt(size);
+				} while (z == x || connections.contains(EdgeSet.key(x, z)));
+
+				connections.remove(key);
+				connections.add(EdgeSet.key(x, z));
+				degrees[y]--;
+				degrees[z]++;
+			}
 		}
-		return graph;
+
+		return toCompactGraph(size, connections);
+	}
+
+	/**
+	 * Barabási, A.-L., Albert, R. (1999), ‘Emergence of scaling in random networks’, Science 286(5439), 509–512.
+	 * <p>
+	 * Preferential attachment: starting with {@code numConnectionsPerNode} unconnected nodes, every new node connects
+	 * to that many distinct existing nodes, chosen with probability proportional to their degree. Picks uniformly
+	 * from the list of all connection endpoints, which has every node repeated as often as its degree.
+	 */
+	public static CompactGraph newBarabasiAlbertGraph(int size, int numConnectionsPerNode, long seed) {
+		if (size < 1)
+			throw new IllegalArgumentException("size should be at least 1: " + size);
+		if (numConnectionsPerNode < 1 || numConnectionsPerNode >= size)
+			throw new IllegalArgumentException("'numConnectionsPerNode' should be in the range [1, " + (size - 1) +
+			                                   "]: " + numConnectionsPerNode);
+
+		int m = numConnectionsPerNode;
+
+		CompactGraph.Builder builder      = new CompactGraph.Builder(size);
+		SplittableRandom     random       = new SplittableRandom(seed);
+		int[]                endpoints    = new int[2 * m * (size - m)];
+		int                  numEndpoints = 0;
+		int[]                targets      = new int[m];
+		int[]                chosen       = new int[size];
+
+		for (int i = 0; i < m; i++)
+			targets[i] = i;
+
+		for (int node = m; node < size; node++) {
+			for (int target : targets) {
+				builder.addConnection(node, target);
+				endpoints[numEndpoints++] = target;
+				endpoints[numEndpoints++] = node;
+			}
+
+			// Mark chosen targets with the node index, so the marks never need clearing
+			for (int i = 0; i < m; i++) {
+				int target;
+				do {
+					target = endpoints[random.nextInt(numEndpoints)];
+				} while (chosen[target] == node + 1);
+
+				chosen[target] = node + 1;
+				targets[i] = target;
+			}
+		}
+
+		return builder.build();
+	}
+
+	private static CompactGraph toCompactGraph(int size, EdgeSet connections) {
+		CompactGraph.Builder builder = new CompactGraph.Builder(size);
+		connections.forEach(key -> builder.addConnection(EdgeSet.lowNode(key), EdgeSet.highNode(key)));
+		return builder.build();
 	}
 }
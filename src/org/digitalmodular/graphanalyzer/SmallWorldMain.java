@@ -0,0 +1,206 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import static org.digitalmodular.graphapi.GraphUtilities.networkAverage;
+
+import org.digitalmodular.graphanalyzer.statistic.AveragePathLengthCalculator;
+import org.digitalmodular.graphanalyzer.statistic.WattsStrogatzClusteringCoefficientCalculator;
+import org.digitalmodular.graphapi.CompactGraph;
+import org.digitalmodular.graphapi.GraphIO;
+import org.digitalmodular.graphapi.GraphUtilities;
+import org.digitalmodular.graphapi.IsolatedSubGraphFinder;
+import org.digitalmodular.graphapi.NeighborGraph;
+
+/**
+ * Compares the clustering coefficient (C) and average path length (L) of every kanji graph to ensembles of
+ * degree-preserving random ({@link EdgeSwapRewirer#rewire(double)}) and lattice
+ * ({@link EdgeSwapRewirer#latticize(double)}) reference graphs, and reports:
+ * <ul>
+ * <li>Humphries, M.D., Gurney, K. (2008), ‘Network ‘small-world-ness’: a quantitative method for determining canonical
+ * network equivalence’, PLoS ONE 3(4), e0002051: {@code σ = (C / Cr) / (L / Lr)}</li>
+ * <li>Telesford, Q.K., et al. (2011), ‘The ubiquity of small-world networks’, Brain Connectivity 1(5), 367–375:
+ * {@code ω = Lr / L - C / Cl}</li>
+ * <li>The z-scores of C and L within the random ensemble.</li>
+ * </ul>
+ * The ensembles are streamed: each worker generates one reference graph, analyzes it and folds the result into its
+ * {@link EnsembleStatistics} before generating the next, so memory doesn't grow with the ensemble size.
+ * <p>
+ * Usage: {@code SmallWorldMain [ensembleSize]}
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+@SuppressWarnings("UseOfSystemOutOrSystemErr")
+public final class SmallWorldMain {
+	private static final int    ENSEMBLE_SIZE        = 100;
+	private static final double SWAPS_PER_CONNECTION = 10;
+	private static final long   SEED                 = 0;
+
+	private static final AnalysisEngine ENGINE = new AnalysisEngine(
+			WattsStrogatzClusteringCoefficientCalculator.INSTANCE, AveragePathLengthCalculator.INSTANCE);
+
+	public static void main(String... args) throws IOException {
+		int ensembleSize = args.length > 0 ? Integer.parseInt(args[0]) : ENSEMBLE_SIZE;
+
+		String[] filenames = Files.list(Paths.get("kanjigraphs"))
+		                          .sorted(Comparator.comparingLong(path -> {
+			                          try {
+				                          return Files.size(path);
+			                          } catch (IOException ignored) {
+				                          return Long.MAX_VALUE;
+			                          }
+		                          }))
+		                          .map(Path::toString)
+		                          .filter(filename -> filename.endsWith("-graph.conn"))
+		                          .toArray(String[]::new);
+
+		Path fileOut = Paths.get("graphstatistics", "smallworld.tsv");
+		try (BufferedWriter out = Files.newBufferedWriter(fileOut)) {
+			out.write("Graph\tNodes\tC\tL\tCr\tCrSD\tLr\tLrSD\tCl\tLl\tSigma\tOmega\tzC\tzL\tDisconnected\n");
+
+			for (String filename : filenames)
+				analyze(filename, ensembleSize, out);
+		}
+
+		System.out.println("-> " + fileOut);
+	}
+
+	private static void analyze(String filenameIn, int ensembleSize, BufferedWriter out) throws IOException {
+		Benchmark.start();
+		NeighborGraph graph = GraphUtilities.toNeighborGraph(GraphIO.read(filenameIn));
+
+		int[][] permutations = IsolatedSubGraphFinder.findIsolatedSubGraphs(graph);
+		Arrays.sort(permutations, Comparator.comparingInt((int[] i) -> i.length).reversed());
+
+		graph = graph.permute(permutations[0]);
+
+		int size = graph.size();
+		Benchmark.record("load");
+
+		double[][] statistics = ENGINE.analyze(graph);
+		double     c          = networkAverage(statistics[0], false);
+		double     l          = networkAverage(statistics[1], false);
+		Benchmark.record("graph");
+
+		EnsembleStatistics random = collect(
+				EdgeSwapRewirer.newEnsemble(graph, ensembleSize, SWAPS_PER_CONNECTION, SEED));
+		Benchmark.record("random");
+		EnsembleStatistics lattice = collect(
+				EdgeSwapRewirer.newLatticeEnsemble(graph, ensembleSize, SWAPS_PER_CONNECTION, SEED));
+		Benchmark.record("lattice");
+		Benchmark.printResults(size);
+
+		double sigma = (c / random.getMeanC()) / (l / random.getMeanL());
+		double omega = random.getMeanL() / l - c / lattice.getMeanC();
+		double zC    = (c - random.getMeanC()) / random.getStandardDeviationC();
+		double zL    = (l - random.getMeanL()) / random.getStandardDeviationL();
+
+		String name = Paths.get(filenameIn).getFileName().toString().replace("-graph.conn", "");
+		out.write(String.format("%s\t%d\t%7.5f\t%7.5f\t%7.5f\t%7.5f\t%7.5f\t%7.5f\t%7.5f\t%7.5f\t" +
+		                        "%7.5f\t%7.5f\t%.3f\t%.3f\t%d\n",
+		                        name, size, c, l,
+		                        random.getMeanC(), random.getStandardDeviationC(),
+		                        random.getMeanL(), random.getStandardDeviationL(),
+		                        lattice.getMeanC(), lattice.getMeanL(),
+		                        sigma, omega, zC, zL, random.getNumDisconnected()));
+		out.flush();
+
+		System.out.printf("%s: sigma=%.3f omega=%.3f zC=%.3f zL=%.3f\n", name, sigma, omega, zC, zL);
+	}
+
+	private static EnsembleStatistics collect(Stream<CompactGraph> ensemble) {
+		return ensemble.collect(EnsembleStatistics::new, EnsembleStatistics::add, EnsembleStatistics::combine);
+	}
+
+	/**
+	 * Running sums of C and L over an ensemble. Disconnected graphs have no (finite) L, so they only count towards C.
+	 */
+	private static final class EnsembleStatistics {
+		private int    countC          = 0;
+		private double sumC            = 0;
+		private double sumSquaresC     = 0;
+		private int    countL          = 0;
+		private double sumL            = 0;
+		private double sumSquaresL     = 0;
+		private int    numDisconnected = 0;
+
+		void add(CompactGraph graph) {
+			double[][] statistics = ENGINE.analyzeSequentially(graph);
+			double     c          = networkAverage(statistics[0], false);
+			double     l          = networkAverage(statistics[1], false);
+
+			countC++;
+			sumC += c;
+			sumSquaresC += c * c;
+
+			if (Double.isNaN(l)) {
+				numDisconnected++;
+			} else {
+				countL++;
+				sumL += l;
+				sumSquaresL += l * l;
+			}
+		}
+
+		void combine(EnsembleStatistics other) {
+			countC += other.countC;
+			sumC += other.sumC;
+			sumSquaresC += other.sumSquaresC;
+			countL += other.countL;
+			sumL += other.sumL;
+			sumSquaresL += other.sumSquaresL;
+			numDisconnected += other.numDisconnected;
+		}
+
+		double getMeanC()              { return sumC / countC; }
+
+		double getMeanL()              { return sumL / countL; }
+
+		double getStandardDeviationC() { return standardDeviation(countC, sumC, sumSquaresC); }
+
+		double getStandardDeviationL() { return standardDeviation(countL, sumL, sumSquaresL); }
+
+		int getNumDisconnected()       { return numDisconnected; }
+
+		private static double standardDeviation(int count, double sum, double sumSquares) {
+			if (count < 2)
+				return Double.NaN;
+
+			double mean = sum / count;
+			return Math.sqrt(Math.max(0, (sumSquares - sum * mean) / (count - 1)));
+		}
+	}
+}
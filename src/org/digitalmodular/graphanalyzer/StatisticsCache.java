@@ -0,0 +1,186 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphanalyzer.statistic.GlobalGraphStatisticCalculator;
+import org.digitalmodular.graphanalyzer.statistic.LocalGraphStatisticCalculator;
+import org.digitalmodular.graphapi.GraphUtilities;
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Persistent cache of per-node statistics, keyed by the content of the graph (see
+ * {@link GraphUtilities#hashConnections(SparseGraph)}) and the calculator with its parameters and
+ * {@linkplain GlobalGraphStatisticCalculator#getResultVersion() result version}. Several kanji sets
+ * produce identical graphs, and unchanged graphs are analyzed again after unrelated changes, so those skip straight to
+ * the results.
+ * <p>
+ * Every entry is a separate file, named after the graph hash and the calculator abbreviation, containing the full key
+ * and the values. Files are written under a temporary name and then renamed, so an interrupted run never leaves a
+ * truncated entry, and concurrent runs at worst calculate the same entry twice.
+ * <p>
+ * The hash is taken over the graph as it is analyzed, so the same graph with a different node order is a different
+ * entry. This is intended: the values are per node.
+ * <p>
+ * Nothing else about the implementation of a calculator is part of the key. When a change to a calculator changes its
+ * results, its result version must be incremented, or the cache directory must be cleared. Otherwise the old values
+ * keep being used without warning.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class StatisticsCache {
+	private static final int MAGIC   = 0x53544154; // "STAT"
+	private static final int VERSION = 1;
+
+	private static final int CHECKPOINT_INTERVAL_SECONDS = 60;
+
+	private final Path directory;
+
+	private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>(64);
+
+	public StatisticsCache(String directory) throws IOException {
+		this.directory = Paths.get(requireNonNull(directory));
+		Files.createDirectories(this.directory);
+	}
+
+	/**
+	 * Returns an object to synchronize on while calculating the statistics of a graph, so concurrent runs on the same
+	 * graph don't calculate the same statistics twice.
+	 */
+	public Object getLock(String graphHash) {
+		return locks.computeIfAbsent(graphHash, ignored -> new Object());
+	}
+
+	/**
+	 * @return The cached values, or {@code null} if not cached or the entry is unreadable.
+	 */
+	public double[] get(String graphHash, int size, GlobalGraphStatisticCalculator<?> calculator) {
+		Path file = getFile(graphHash, calculator);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				return null;
+			if (!in.readUTF().equals(graphHash) || !in.readUTF().equals(makeKey(calculator)))
+				return null;
+			if (in.readInt() != size)
+				return null;
+
+			double[] values = new double[size];
+			for (int i = 0; i < size; i++)
+				values[i] = in.readDouble();
+
+			return values;
+		} catch (NoSuchFileException ignored) {
+			return null;
+		} catch (IOException ex) {
+			System.err.println("Ignoring unreadable cache entry " + file + ": " + ex);
+			return null;
+		}
+	}
+
+	public void put(String graphHash, GlobalGraphStatisticCalculator<?> calculator, double[] values)
+			throws IOException {
+		Path file     = getFile(graphHash, calculator);
+		Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(graphHash);
+				out.writeUTF(makeKey(calculator));
+				out.writeInt(values.length);
+				for (double value : values)
+					out.writeDouble(value);
+			}
+
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Returns the cached values, or calculates and caches them.
+	 *
+	 * @throws UncheckedIOException when the values can't be cached.
+	 */
+	public <G extends SparseGraph> double[] computeIfAbsent(String graphHash, G graph,
+	                                                        LocalGraphStatisticCalculator<? super G> calculator) {
+		double[] values = get(graphHash, graph.size(), calculator);
+		if (values != null)
+			return values;
+
+		values = calculator.calculateAll(graph);
+		try {
+			put(graphHash, calculator, values);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		return values;
+	}
+
+	/**
+	 * Creates a checkpoint for calculating the given statistics of a graph. It's stored in the cache directory, so an
+	 * interrupted run of the same graph and statistics resumes from it.
+	 */
+	public Checkpoint newCheckpoint(String graphHash, GlobalGraphStatisticCalculator<?>... calculators) {
+		StringBuilder key = new StringBuilder(graphHash);
+		for (GlobalGraphStatisticCalculator<?> calculator : calculators)
+			key.append(' ').append(makeKey(calculator));
+
+		Path file = directory.resolve(graphHash + String.format("-%08x", key.toString().hashCode()) + ".ckpt");
+		return new Checkpoint(file, key.toString(), CHECKPOINT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private Path getFile(String graphHash, GlobalGraphStatisticCalculator<?> calculator) {
+		String parameters = calculator.getParameters();
+		String suffix     = parameters.isEmpty() ? "" : String.format("-%08x", parameters.hashCode());
+		return directory.resolve(graphHash + '-' + calculator.getAbbreviation() + suffix + ".stat");
+	}
+
+	private static String makeKey(GlobalGraphStatisticCalculator<?> calculator) {
+		return calculator.getAbbreviation() + " v" + calculator.getResultVersion() +
+		       '(' + calculator.getParameters() + ')';
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.io.IOException;
+
+/**
+ * Receives the per-node values of several statistics while they're being calculated, so results can be written (and
+ * used) before the whole graph is done.
+ * <p>
+ * Nodes are delivered in ascending ranges without gaps or overlap, so sinks can write rows in order. Calls are never
+ * concurrent, but may come from different threads.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public interface StatisticsSink {
+	/**
+	 * Called once, before any values.
+	 *
+	 * @param columnNames The abbreviation of each statistic.
+	 */
+	void begin(String[] columnNames, int size) throws IOException;
+
+	/**
+	 * @param columns The values of each statistic, indexed by node. Only the values of the nodes from {@code from}
+	 *                (inclusive) to {@code to} (exclusive) are final, and only those may be read.
+	 */
+	void write(double[][] columns, int from, int to) throws IOException;
+}
@@ -0,0 +1,195 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes tab-separated values, formatting numbers without creating objects. Large tables (many thousands of rows)
+ * are written much faster than with {@link String#format(String, Object...)}, which creates a formatter and several
+ * strings per value.
+ * <p>
+ * Characters are collected in an internal buffer and passed to the underlying writer in large chunks, so the writer
+ * doesn't need to be buffered.
+ * <p>
+ * Not Thread-safe.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class TsvWriter implements Closeable, Flushable {
+	private static final long[] POWERS_OF_TEN = {
+			1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L};
+
+	/** Above this, the scaled value no longer has enough fraction bits to round reliably. */
+	private static final double MAX_FAST_SCALED = 1.0e15;
+	/**
+	 * Scaled values with a fraction this close to one half are formatted by {@link String#format}. The margin grows
+	 * with the precision of the value, see {@link #appendFixed(double, int, int)}.
+	 */
+	private static final double TIE_MARGIN      = 1.0e-6;
+
+	private final Writer out;
+
+	private final char[] buffer = new char[8192];
+	private final char[] digits = new char[20];
+	private       int    length = 0;
+
+	public TsvWriter(Writer out) {
+		this.out = requireNonNull(out);
+	}
+
+	public TsvWriter append(CharSequence text) throws IOException {
+		for (int i = 0; i < text.length(); i++)
+			append(text.charAt(i));
+
+		return this;
+	}
+
+	public TsvWriter append(char c) throws IOException {
+		if (length == buffer.length)
+			flushBuffer();
+
+		buffer[length++] = c;
+		return this;
+	}
+
+	public TsvWriter tab() throws IOException {
+		return append('\t');
+	}
+
+	public TsvWriter newLine() throws IOException {
+		return append('\n');
+	}
+
+	/**
+	 * Same as {@code String.valueOf(value)}.
+	 */
+	public TsvWriter appendInt(long value) throws IOException {
+		if (value == Long.MIN_VALUE)
+			return append(String.valueOf(value));
+
+		if (value < 0) {
+			append('-');
+			value = -value;
+		}
+
+		int numDigits = 0;
+		do {
+			digits[numDigits++] = (char)('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+
+		while (numDigits > 0)
+			append(digits[--numDigits]);
+
+		return this;
+	}
+
+	/**
+	 * Same as {@code String.format("%<width>.<decimals>f", value)}, e.g. {@code "%7.5f"}.
+	 * <p>
+	 * Non-negative finite values are formatted directly. Others, and values that lie so close to a rounding tie that
+	 * the {@code double} arithmetic can't decide, are passed to {@link String#format}, to get exactly the same result.
+	 * <p>
+	 * {@link String#format} rounds the shortest decimal representation of the value half-up, not the binary value
+	 * itself. The two differ by up to half an ulp of the value, and scaling adds up to half an ulp of the scaled value,
+	 * so the margin around the tie includes both. For large values this falls back more often.
+	 *
+	 * @param decimals Between 0 and 9.
+	 */
+	public TsvWriter appendFixed(double value, int width, int decimals) throws IOException {
+		if (decimals < 0 || decimals >= POWERS_OF_TEN.length)
+			throw new IllegalArgumentException("'decimals' should be in the range [0, " +
+			                                   (POWERS_OF_TEN.length - 1) + "]: " + decimals);
+
+		long   scale  = POWERS_OF_TEN[decimals];
+		double scaled = value * scale;
+		if (!(value >= 0) || Double.doubleToRawLongBits(value) < 0 || !(scaled < MAX_FAST_SCALED))
+			return appendFormatted(value, width, decimals);
+
+		long   integer  = (long)scaled;
+		double fraction = scaled - integer;
+		double margin   = TIE_MARGIN + Math.ulp(value) * scale + Math.ulp(scaled);
+		if (Math.abs(fraction - 0.5) < margin)
+			return appendFormatted(value, width, decimals);
+
+		if (fraction > 0.5)
+			integer++;
+
+		// Collect the digits backwards, including the decimals and the decimal point
+		int numDigits = 0;
+		for (int i = 0; i < decimals; i++) {
+			digits[numDigits++] = (char)('0' + integer % 10);
+			integer /= 10;
+		}
+
+		if (decimals > 0)
+			digits[numDigits++] = '.';
+
+		do {
+			digits[numDigits++] = (char)('0' + integer % 10);
+			integer /= 10;
+		} while (integer != 0);
+
+		for (int i = numDigits; i < width; i++)
+			append(' ');
+		while (numDigits > 0)
+			append(digits[--numDigits]);
+
+		return this;
+	}
+
+	private TsvWriter appendFormatted(double value, int width, int decimals) throws IOException {
+		String format = width > 0 ? "%" + width + '.' + decimals + 'f' : "%." + decimals + 'f';
+		return append(String.format(format, value));
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBuffer();
+		} finally {
+			out.close();
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		out.write(buffer, 0, length);
+		length = 0;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Fiedler, M. (1973), ‘Algebraic connectivity of graphs’, Czechoslovak Mathematical Journal 23(2), 298–305.
+ * <p>
+ * The algebraic connectivity is the second-smallest eigenvalue of the Laplacian matrix {@code L = D - A}. It is zero
+ * iff the graph is disconnected, and larger the harder it is to cut the graph in two. Calculated with
+ * {@link LanczosSolver} on a parallel sparse product with the neighbor arrays, with the constant vector (the
+ * eigenvector of eigenvalue 0) deflated.
+ * <p>
+ * The algebraic connectivity usually lies in a dense cluster of eigenvalues (graphs with many leaves have lots of
+ * eigenvalues close to 1), which takes the solver thousands of iterations to resolve.
+ * <p>
+ * When the solver doesn't converge within its iteration limit, {@link #calculate(SparseGraph)} returns
+ * {@link Double#NaN} instead of an approximation.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class AlgebraicConnectivityCalculator implements GlobalGraphStatisticCalculator<SparseGraph> {
+	public static final AlgebraicConnectivityCalculator INSTANCE = new AlgebraicConnectivityCalculator();
+
+	private AlgebraicConnectivityCalculator() {
+		if (INSTANCE != null)
+			throw new AssertionError();
+	}
+
+	@Override
+	public String getName() { return "Algebraic Connectivity"; }
+
+	@Override
+	public String getAbbreviation() { return "AC"; }
+
+	@Override
+	public int getResultVersion() { return 2; }
+
+	@Override
+	public double calculate(SparseGraph graph) {
+		Eigenvalues eigenvalues = calculateSmallestEigenvalues(graph, 1);
+		if (eigenvalues.size() == 0 || !eigenvalues.isConverged())
+			return Double.NaN;
+
+		// Rounding can make the zero of a disconnected graph slightly negative.
+		return Math.max(0, eigenvalues.getValues()[0]);
+	}
+
+	/**
+	 * @return Up to {@code count} distinct smallest Laplacian eigenvalues other than the trivial zero, in ascending
+	 * order. Check {@link Eigenvalues#isConverged()} before using them as exact values.
+	 */
+	public static Eigenvalues calculateSmallestEigenvalues(SparseGraph graph, int count) {
+		requireNonNull(graph);
+		if (count < 1)
+			throw new IllegalArgumentException("'count' should be at least 1: " + count);
+
+		LanczosSolver solver = newSolver(graph);
+		solver.solve(count, false);
+		return Eigenvalues.of(solver);
+	}
+
+	/**
+	 * @return The eigenvector of the algebraic connectivity, or {@code null} if the graph has fewer than 2 nodes or
+	 * the solver didn't converge.
+	 */
+	public static double[] calculateFiedlerVector(SparseGraph graph) {
+		requireNonNull(graph);
+
+		LanczosSolver solver    = newSolver(graph);
+		boolean       converged = solver.solve(1, false);
+		return converged && solver.getEigenvalues().length > 0 ? solver.getEigenvector(0) : null;
+	}
+
+	private static LanczosSolver newSolver(SparseGraph graph) {
+		int size = graph.size();
+
+		double[] constant = new double[size];
+		Arrays.fill(constant, 1 / Math.sqrt(size));
+
+		// Gershgorin: every eigenvalue of the Laplacian is at most twice the maximum degree
+		int maxDegree = IntStream.range(0, size).map(graph::numNeighbors).max().orElse(0);
+
+		return new LanczosSolver(size, (in, out) -> IntStream.range(0, size).parallel().forEach(node -> {
+			int    numNeighbors = graph.numNeighbors(node);
+			double sum          = numNeighbors * in[node];
+			for (int i = 0; i < numNeighbors; i++)
+				sum -= in[graph.getNeighbor(node, i)];
+
+			out[node] = sum;
+		}), 2 * maxDegree, constant);
+	}
+}
@@ -28,16 +28,17 @@ package org.digitalmodular.graphanalyzer.statistic;
 
 import java.util.Arrays;
 import com.sun.istack.internal.Nullable;
+import static java.util.Objects.requireNonNull;
 
 import org.digitalmodular.graphapi.Graph;
 import org.digitalmodular.graphapi.MatrixGraph;
-import org.digitalmodular.graphapi.NeighborGraph;
+import org.digitalmodular.graphapi.SparseGraph;
 
 /**
  * @author Mark Jeronimus
  */
 // Created 2018-02-06
-public final class AveragePathLengthCalculator implements LocalGraphStatisticCalculator<NeighborGraph> {
+public final class AveragePathLengthCalculator implements FusableStatisticCalculator {
 	public static final AveragePathLengthCalculator INSTANCE = new AveragePathLengthCalculator();
 
 	private AveragePathLengthCalculator() {
@@ -52,7 +53,7 @@ public final class AveragePathLengthCalculator implements LocalGraphStatisticCal
 	public String getAbbreviation() { return "APL"; }
 
 	@Override
-	public double[] calculateAll(NeighborGraph graph) {
+	public double[] calculateAll(SparseGraph graph) {
 		int size = graph.size();
 
 		Graph visibilityMap = new MatrixGraph(graph);
@@ -98,7 +99,33 @@ public final class AveragePathLengthCalculator implements LocalGraphStatisticCal
 		throw new AssertionError("Iteration overflow");
 	}
 
-	private static int[] getNeighborCounts(NeighborGraph graph) {
+	@Override
+	public boolean needsBreadthFirstSearch() { return true; }
+
+	@Override
+	public NodeCalculator newNodeCalculator(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+		return (node, search) -> search.getNumReached() == size
+		                         ? search.getDistanceSum() / (double)(size - 1)
+		                         : Double.NaN;
+	}
+
+	/**
+	 * Like {@link #calculateAll(SparseGraph)}, makes all path lengths undefined when the graph is disconnected.
+	 */
+	@Override
+	public void finish(double[] values) {
+		for (double value : values) {
+			if (Double.isNaN(value)) {
+				Arrays.fill(values, Double.NaN);
+				return;
+			}
+		}
+	}
+
+	private static int[] getNeighborCounts(SparseGraph graph) {
 		int   size         = graph.size();
 		int[] numNeighbors = new int[size];
 		for (int node = 0; node < size; node++)
@@ -107,7 +134,7 @@ public final class AveragePathLengthCalculator implements LocalGraphStatisticCal
 		return numNeighbors;
 	}
 
-	private static int[] initNumUnvisitedNodes(NeighborGraph graph) {
+	private static int[] initNumUnvisitedNodes(SparseGraph graph) {
 		int   size      = graph.size();
 		int[] remaining = new int[size];
 		for (int node = 0; node < size; node++)
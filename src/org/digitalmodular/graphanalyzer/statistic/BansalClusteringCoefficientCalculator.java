@@ -28,7 +28,7 @@ package org.digitalmodular.graphanalyzer.statistic;
 
 import static java.util.Objects.requireNonNull;
 
-import org.digitalmodular.graphapi.NeighborGraph;
+import org.digitalmodular.graphapi.SparseGraph;
 import static org.digitalmodular.graphapi.GraphUtilities.networkAverage;
 
 /**
@@ -37,7 +37,7 @@ import static org.digitalmodular.graphapi.GraphUtilities.networkAverage;
  * @author Mark Jeronimus
  */
 // Created 2018-02-04
-public final class BansalClusteringCoefficientCalculator implements LocalGraphStatisticCalculator<NeighborGraph> {
+public final class BansalClusteringCoefficientCalculator implements FusableStatisticCalculator {
 	public static final BansalClusteringCoefficientCalculator INSTANCE = new BansalClusteringCoefficientCalculator();
 
 	private BansalClusteringCoefficientCalculator() {
@@ -52,12 +52,12 @@ public final class BansalClusteringCoefficientCalculator implements LocalGraphSt
 	public String getAbbreviation() { return "CC"; }
 
 	@Override
-	public double calculate(NeighborGraph graph) {
+	public double calculate(SparseGraph graph) {
 		return networkAverage(calculateAll(graph), true);
 	}
 
 	@Override
-	public double[] calculateAll(NeighborGraph graph) {
+	public double[] calculateAll(SparseGraph graph) {
 		requireNonNull(graph);
 
 		int size = graph.size();
@@ -69,7 +69,14 @@ public final class BansalClusteringCoefficientCalculator implements LocalGraphSt
 		return clusteringCoefficients;
 	}
 
-	public static double calculate(NeighborGraph graph, int node) {
+	@Override
+	public NodeCalculator newNodeCalculator(SparseGraph graph) {
+		requireNonNull(graph);
+
+		return (node, search) -> calculate(graph, node);
+	}
+
+	public static double calculate(SparseGraph graph, int node) {
 		int numNeighbors = graph.numNeighbors(node);
 		if (numNeighbors < 2)
 			return Double.NaN;
@@ -0,0 +1,278 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.BreadthFirstSearch;
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Brandes, U. (2001), ‘A faster algorithm for betweenness centrality’, Journal of Mathematical Sociology 25(2),
+ * 163–177.
+ * <p>
+ * Returns the betweenness of every node, normalized to the fraction of node pairs (not including the node itself)
+ * that have a shortest path through it, in the range [0, 1].
+ * <p>
+ * Sources are processed in parallel, each thread accumulating dependencies into its own array. When a number of
+ * samples is given, only that many randomly chosen sources are processed, and the result is scaled up. With
+ * probability at least {@code 1 - failureProbability}, all estimates are then within
+ * {@link #getErrorBound(int, double)} of the exact values (Hoeffding's inequality with a union bound over all nodes).
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public class BetweennessCentralityCalculator implements LocalGraphStatisticCalculator<SparseGraph> {
+	public static final BetweennessCentralityCalculator INSTANCE = new BetweennessCentralityCalculator(0, 0);
+
+	/** The number of sources to sample, or 0 to process all nodes as sources. */
+	private final int  numSamples;
+	/** The seed for choosing the sampled sources. */
+	private final long seed;
+
+	public BetweennessCentralityCalculator(int numSamples, long seed) {
+		if (numSamples < 0)
+			throw new IllegalArgumentException("'numSamples' can't be negative: " + numSamples);
+
+		this.numSamples = numSamples;
+		this.seed = seed;
+	}
+
+	/**
+	 * @return The number of samples needed to get all estimates within {@code errorBound} of the exact value, with
+	 * probability at least {@code 1 - failureProbability}.
+	 */
+	public static int getNumSamplesNeeded(int size, double errorBound, double failureProbability) {
+		if (errorBound <= 0 || errorBound > 1)
+			throw new IllegalArgumentException("'errorBound' should be in the range (0, 1]: " + errorBound);
+		if (failureProbability <= 0 || failureProbability >= 1)
+			throw new IllegalArgumentException(
+					"'failureProbability' should be in the range (0, 1): " + failureProbability);
+
+		double scaledBound = errorBound * (size - 1) / size;
+		return (int)Math.ceil(Math.log(2 * size / failureProbability) / (2 * scaledBound * scaledBound));
+	}
+
+	@Override
+	public String getName() { return "Betweenness Centrality"; }
+
+	@Override
+	public String getAbbreviation() { return "BC"; }
+
+	@Override
+	public String getParameters() {
+		return "numSamples=" + numSamples + ",seed=" + seed;
+	}
+
+	public boolean isSampled(int size) { return numSamples > 0 && numSamples < size; }
+
+	/**
+	 * @return The maximum error of all nodes, with probability at least {@code 1 - failureProbability}, or 0 if the
+	 * result for this graph size is exact.
+	 */
+	public double getErrorBound(int size, double failureProbability) {
+		if (failureProbability <= 0 || failureProbability >= 1)
+			throw new IllegalArgumentException(
+					"'failureProbability' should be in the range (0, 1): " + failureProbability);
+
+		if (!isSampled(size))
+			return 0;
+
+		return Math.sqrt(Math.log(2 * size / failureProbability) / (2 * numSamples)) * size / (size - 1);
+	}
+
+	@Override
+	public double[] calculateAll(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+		if (size < 3)
+			return new double[size];
+
+		int[] sources = chooseSources(size, false);
+
+		return IntStream.of(sources)
+		                .parallel()
+		                .collect(() -> new BrandesAccumulator(size),
+		                         (accumulator, source) -> accumulator.accumulate(graph, source),
+		                         BrandesAccumulator::merge)
+		                .getBetweenness();
+	}
+
+	/**
+	 * Processes the sources in random order, one unit of work per source. When stopped early, the result is estimated
+	 * from the sources processed so far, as if that many samples were requested (but with a different sample). When
+	 * no source was processed, all values are {@link Double#NaN}.
+	 */
+	@Override
+	public PartialResult calculateAll(SparseGraph graph, CalculationControl control) {
+		requireNonNull(graph, "graph");
+		requireNonNull(control, "control");
+
+		int size = graph.size();
+		if (size < 3) {
+			control.start(0);
+			return new PartialResult(new double[size], 0, 0);
+		}
+
+		int[] sources = chooseSources(size, true);
+		control.start(sources.length);
+
+		BrandesAccumulator total = IntStream.of(sources)
+		                                    .parallel()
+		                                    .collect(() -> new BrandesAccumulator(size),
+		                                             (accumulator, source) -> {
+			                                             if (!control.shouldStop()) {
+				                                             accumulator.accumulate(graph, source);
+				                                             control.advance(1);
+			                                             }
+		                                             },
+		                                             BrandesAccumulator::merge);
+
+		return new PartialResult(total.getBetweenness(), total.numSources, sources.length);
+	}
+
+	/**
+	 * @param shuffleAll Whether to also shuffle the sources when all nodes are sources, so any prefix is a random
+	 *                   sample too.
+	 */
+	private int[] chooseSources(int size, boolean shuffleAll) {
+		int[] nodes = new int[size];
+		for (int i = 0; i < size; i++)
+			nodes[i] = i;
+
+		boolean sampled = isSampled(size);
+		if (!sampled && !shuffleAll)
+			return nodes;
+
+		// (Partial) Fisher-Yates shuffle.
+		int              numSources = sampled ? numSamples : size;
+		SplittableRandom random     = new SplittableRandom(seed);
+		for (int i = 0; i < numSources; i++) {
+			int j    = i + random.nextInt(size - i);
+			int swap = nodes[i];
+			nodes[i] = nodes[j];
+			nodes[j] = swap;
+		}
+
+		if (!sampled)
+			return nodes;
+
+		int[] sources = new int[numSamples];
+		System.arraycopy(nodes, 0, sources, 0, numSamples);
+		return sources;
+	}
+
+	private static final class BrandesAccumulator {
+		final BreadthFirstSearch search;
+		final double[]           numShortestPaths;
+		final double[]           sourceDependencies;
+		final double[]           dependencies;
+
+		int numSources = 0;
+
+		BrandesAccumulator(int size) {
+			search = new BreadthFirstSearch(size);
+			numShortestPaths = new double[size];
+			sourceDependencies = new double[size];
+			dependencies = new double[size];
+		}
+
+		/**
+		 * Instead of keeping predecessor lists, predecessors and successors are recognized by their distance.
+		 */
+		void accumulate(SparseGraph graph, int source) {
+			search.search(graph, source);
+
+			int[] order      = search.getVisitOrder();
+			int   numReached = search.getNumReached();
+
+			numShortestPaths[source] = 1;
+			for (int i = 1; i < numReached; i++) {
+				int node     = order[i];
+				int distance = search.getDistance(node);
+
+				double sum          = 0;
+				int    numNeighbors = graph.numNeighbors(node);
+				for (int j = 0; j < numNeighbors; j++) {
+					int neighbor = graph.getNeighbor(node, j);
+					if (search.getDistance(neighbor) == distance - 1)
+						sum += numShortestPaths[neighbor];
+				}
+
+				numShortestPaths[node] = sum;
+			}
+
+			for (int i = numReached - 1; i > 0; i--) {
+				int    node     = order[i];
+				int    distance = search.getDistance(node);
+				double paths    = numShortestPaths[node];
+
+				double sum          = 0;
+				int    numNeighbors = graph.numNeighbors(node);
+				for (int j = 0; j < numNeighbors; j++) {
+					int neighbor = graph.getNeighbor(node, j);
+					if (search.getDistance(neighbor) == distance + 1)
+						sum += paths / numShortestPaths[neighbor] * (1 + sourceDependencies[neighbor]);
+				}
+
+				sourceDependencies[node] = sum;
+				dependencies[node] += sum;
+			}
+
+			numSources++;
+		}
+
+		void merge(BrandesAccumulator other) {
+			for (int i = 0; i < dependencies.length; i++)
+				dependencies[i] += other.dependencies[i];
+
+			numSources += other.numSources;
+		}
+
+		/**
+		 * Normalizes the dependencies, and scales them up by the fraction of nodes that were sources.
+		 */
+		double[] getBetweenness() {
+			int size = dependencies.length;
+			if (numSources == 0) {
+				Arrays.fill(dependencies, Double.NaN);
+				return dependencies;
+			}
+
+			// Every pair is counted from both ends, hence (n - 1)(n - 2) instead of (n - 1)(n - 2) / 2.
+			double scale = size / (double)numSources / ((size - 1) * (double)(size - 2));
+			for (int node = 0; node < size; node++)
+				dependencies[node] *= scale;
+
+			return dependencies;
+		}
+	}
+}
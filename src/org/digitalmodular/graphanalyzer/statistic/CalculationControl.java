@@ -0,0 +1,152 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.sun.istack.internal.Nullable;
+
+/**
+ * Lets a long calculation report its progress, and stop early when cancelled or when its time budget runs out.
+ * <p>
+ * The calculation calls {@link #start(int)} with the number of units of work (usually nodes), checks
+ * {@link #shouldStop()} before each unit, and reports completed units with {@link #advance(int)}. Stopping is
+ * cooperative: a unit that's started is always finished. The time budget starts counting at {@link #start(int)}.
+ * <p>
+ * An instance controls one calculation. Thread-safe, so the threads of a parallel calculation can share it.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class CalculationControl {
+	private final long                       timeBudgetNanos;
+	private final long                       progressIntervalNanos;
+	private final @Nullable ProgressListener listener;
+
+	private final AtomicInteger numDone = new AtomicInteger();
+
+	private volatile boolean cancelled        = false;
+	private volatile int     numTotal         = -1;
+	private volatile long    startTime        = 0;
+	private          long    lastProgressTime = 0;
+
+	/**
+	 * Creates a control without a time budget and without progress reports, which only stops when cancelled.
+	 */
+	public CalculationControl() {
+		this(0, 0, TimeUnit.NANOSECONDS, null);
+	}
+
+	/**
+	 * @param timeBudget       The time after which the calculation stops, or 0 for no limit.
+	 * @param progressInterval The minimum time between progress reports. The last unit is always reported.
+	 * @param listener         Receives the progress reports, on whichever thread completes the work.
+	 */
+	public CalculationControl(long timeBudget,
+	                          long progressInterval,
+	                          TimeUnit unit,
+	                          @Nullable ProgressListener listener) {
+		if (timeBudget < 0)
+			throw new IllegalArgumentException("'timeBudget' can't be negative: " + timeBudget);
+		if (progressInterval < 0)
+			throw new IllegalArgumentException("'progressInterval' can't be negative: " + progressInterval);
+
+		timeBudgetNanos = unit.toNanos(timeBudget);
+		progressIntervalNanos = unit.toNanos(progressInterval);
+		this.listener = listener;
+	}
+
+	/**
+	 * Requests the calculation to stop. It returns a partial result after finishing the units it's working on.
+	 */
+	public void cancel()           { cancelled = true; }
+
+	public boolean isCancelled()   { return cancelled; }
+
+	public int getNumDone()        { return numDone.get(); }
+
+	/**
+	 * @return The number of units of work, or -1 when not started yet.
+	 */
+	public int getNumTotal()       { return numTotal; }
+
+	public boolean isComplete()    { return numTotal >= 0 && numDone.get() == numTotal; }
+
+	/**
+	 * Called by the calculation before it starts working.
+	 */
+	public void start(int numTotal) {
+		if (numTotal < 0)
+			throw new IllegalArgumentException("'numTotal' can't be negative: " + numTotal);
+
+		synchronized (this) {
+			if (this.numTotal >= 0)
+				throw new IllegalStateException("A CalculationControl can only be used once");
+
+			startTime = System.nanoTime();
+			lastProgressTime = startTime;
+			this.numTotal = numTotal;
+		}
+	}
+
+	/**
+	 * @return Whether the calculation should stop instead of starting the next unit of work.
+	 */
+	public boolean shouldStop() {
+		return cancelled || timeBudgetNanos > 0 && System.nanoTime() - startTime >= timeBudgetNanos;
+	}
+
+	/**
+	 * Called by the calculation when units of work are complete.
+	 */
+	public void advance(int count) {
+		int done = numDone.addAndGet(count);
+		if (listener == null)
+			return;
+
+		long now = System.nanoTime();
+		synchronized (this) {
+			if (done < numTotal && now - lastProgressTime < progressIntervalNanos)
+				return;
+
+			lastProgressTime = now;
+		}
+
+		long elapsed   = now - startTime;
+		long remaining = done == 0 ? -1 : (long)(elapsed * ((numTotal - done) / (double)done));
+		listener.progress(done, numTotal, elapsed, remaining);
+	}
+
+	@FunctionalInterface
+	public interface ProgressListener {
+		/**
+		 * @param remainingNanos The estimated time until the calculation is complete, or -1 if unknown. It assumes
+		 *                       all units of work take equally long.
+		 */
+		void progress(int numDone, int numTotal, long elapsedNanos, long remainingNanos);
+	}
+}
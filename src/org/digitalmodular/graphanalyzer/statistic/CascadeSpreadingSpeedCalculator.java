@@ -0,0 +1,299 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Monte Carlo variant of {@link SpreadingSpeedCalculator}. Instead of transferring fractional values, every trial
+ * samples an actual cascade: each infectious node infects each susceptible neighbor with {@code transferProbability}
+ * per step, and then recovers with {@code recoveryProbability}. A recovery probability of 1 gives the independent
+ * cascade model, smaller values give SIR dynamics.
+ * <p>
+ * The statistic of a node is the number of steps until the given fraction of nodes has been infected, averaged over
+ * all trials started from that node that reached that fraction. Results are deterministic for a given seed,
+ * regardless of thread scheduling.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public class CascadeSpreadingSpeedCalculator implements FusableStatisticCalculator {
+	/** The probability that an infectious node infects a susceptible neighbor during one iteration. */
+	private final double transferProbability;
+	/** The probability that an infectious node stops being infectious after one iteration. */
+	private final double recoveryProbability;
+	/** The fraction of the number of nodes that must be infected before a trial finishes. */
+	private final double finishFactor;
+	/** The number of cascades to sample per seed node. */
+	private final int    numTrials;
+	/** The seed for the random number generators. */
+	private final long   seed;
+
+	public CascadeSpreadingSpeedCalculator(double transferProbability,
+	                                       double recoveryProbability,
+	                                       double finishFactor,
+	                                       int numTrials,
+	                                       long seed) {
+		if (transferProbability <= 0 || transferProbability > 1)
+			throw new IllegalArgumentException(
+					"'transferProbability' should be in the range (0, 1]: " + transferProbability);
+		if (recoveryProbability <= 0 || recoveryProbability > 1)
+			throw new IllegalArgumentException(
+					"'recoveryProbability' should be in the range (0, 1]: " + recoveryProbability);
+		if (finishFactor <= 0 || finishFactor > 1)
+			throw new IllegalArgumentException(
+					"'finishFactor' should be in the range (0, 1]: " + finishFactor);
+		if (numTrials < 1)
+			throw new IllegalArgumentException("'numTrials' should be at least 1: " + numTrials);
+
+		this.transferProbability = transferProbability;
+		this.recoveryProbability = recoveryProbability;
+		this.finishFactor = finishFactor;
+		this.numTrials = numTrials;
+		this.seed = seed;
+	}
+
+	@Override
+	public String getName() { return "Cascade Spreading Speed"; }
+
+	@Override
+	public String getAbbreviation() { return "CSS"; }
+
+	@Override
+	public String getParameters() {
+		return "transferProbability=" + transferProbability +
+		       ",recoveryProbability=" + recoveryProbability +
+		       ",finishFactor=" + finishFactor +
+		       ",numTrials=" + numTrials +
+		       ",seed=" + seed;
+	}
+
+	@Override
+	public double[] calculateAll(SparseGraph graph) {
+		return calculateStatistics(graph).getMeans();
+	}
+
+	public CascadeStatistics calculateStatistics(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+
+		ThreadLocal<CascadeState> states = ThreadLocal.withInitial(() -> new CascadeState(size));
+
+		CascadeStatistics statistics = new CascadeStatistics(size);
+		IntStream.range(0, size)
+		         .parallel()
+		         .forEach(node -> {
+			         long[] moments = runTrials(graph, node, states.get());
+			         statistics.set(node, moments[0], moments[1], moments[2], numTrials);
+		         });
+
+		return statistics;
+	}
+
+	@Override
+	public NodeCalculator newNodeCalculator(SparseGraph graph) {
+		requireNonNull(graph);
+
+		CascadeState state = new CascadeState(graph.size());
+		return (node, search) -> {
+			long[] moments = runTrials(graph, node, state);
+			return moments[0] == 0 ? Double.NaN : moments[1] / (double)moments[0];
+		};
+	}
+
+	/**
+	 * Runs the trials of a single seed node in parallel.
+	 *
+	 * @return The mean spreading time, or {@link Double#NaN} if no trial reached the finish fraction.
+	 */
+	public double calculate(SparseGraph graph, int node) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+
+		ThreadLocal<CascadeState> states = ThreadLocal.withInitial(() -> new CascadeState(size));
+
+		long[] sums = IntStream.range(0, numTrials)
+		                       .parallel()
+		                       .mapToObj(trial -> {
+			                       int time = runTrial(graph, node, trial, states.get());
+			                       return time >= 0 ? new long[]{1, time} : new long[]{0, 0};
+		                       })
+		                       .reduce(new long[2], (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+
+		return sums[0] == 0 ? Double.NaN : sums[1] / (double)sums[0];
+	}
+
+	/**
+	 * @return The number of finished trials, the sum of their spreading times, and the sum of their squares.
+	 */
+	private long[] runTrials(SparseGraph graph, int node, CascadeState state) {
+		long count = 0;
+		long sum   = 0;
+		long sumSq = 0;
+		for (int trial = 0; trial < numTrials; trial++) {
+			int time = runTrial(graph, node, trial, state);
+			if (time >= 0) {
+				count++;
+				sum += time;
+				sumSq += (long)time * time;
+			}
+		}
+
+		return new long[]{count, sum, sumSq};
+	}
+
+	/**
+	 * @return The number of steps until the finish fraction was infected, or -1 if the cascade died out before that.
+	 */
+	private int runTrial(SparseGraph graph, int node, int trial, CascadeState state) {
+		SplittableRandom random = new SplittableRandom(mixSeed(seed, node, trial));
+
+		long[] infected    = state.clear();
+		int[]  infectious  = state.infectious;
+		int[]  next        = state.next;
+		int    numInfected = 1;
+
+		infected[node >>> 6] |= 1L << node;
+		infectious[0] = node;
+		int numInfectious = 1;
+
+		int target = (int)StrictMath.ceil(finishFactor * graph.size());
+		if (numInfected >= target)
+			return 0;
+
+		double logNotTransfer = transferProbability < 1 ? Math.log1p(-transferProbability) : 0;
+
+		for (int step = 1; numInfectious > 0; step++) {
+			int numNext = 0;
+
+			for (int i = 0; i < numInfectious; i++) {
+				int sendingNode  = infectious[i];
+				int numNeighbors = graph.numNeighbors(sendingNode);
+
+				// Geometric skipping: jump directly to the next neighbor that receives a transfer attempt.
+				int neighbor = transferProbability < 1 ? skip(random, logNotTransfer) : 0;
+				while (neighbor < numNeighbors) {
+					int receivingNode = graph.getNeighbor(sendingNode, neighbor);
+
+					long mask = 1L << receivingNode;
+					int  word = receivingNode >>> 6;
+					if ((infected[word] & mask) == 0) {
+						infected[word] |= mask;
+						next[numNext++] = receivingNode;
+						numInfected++;
+					}
+
+					neighbor += transferProbability < 1 ? 1 + skip(random, logNotTransfer) : 1;
+				}
+
+				if (recoveryProbability < 1 && random.nextDouble() >= recoveryProbability)
+					next[numNext++] = sendingNode;
+			}
+
+			if (numInfected >= target)
+				return step;
+
+			int[] swap = infectious;
+			infectious = next;
+			next = swap;
+			numInfectious = numNext;
+		}
+
+		return -1;
+	}
+
+	private static int skip(SplittableRandom random, double logNotTransfer) {
+		double skip = Math.floor(Math.log(1 - random.nextDouble()) / logNotTransfer);
+		return skip < Integer.MAX_VALUE ? (int)skip : Integer.MAX_VALUE - 1;
+	}
+
+	/**
+	 * Derives an independent stream for every (node, trial) pair (SplitMix64 finalizer), so results don't depend on
+	 * which thread runs which trial.
+	 */
+	private static long mixSeed(long seed, int node, int trial) {
+		long z = seed + 0x9E3779B97F4A7C15L * (((long)node << 32 | trial & 0xFFFFFFFFL) + 1);
+		z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+		return z ^ z >>> 31;
+	}
+
+	/**
+	 * Per-thread scratch space, reused across trials. The infected set is a bitset, one bit per node.
+	 */
+	private static final class CascadeState {
+		final long[] infected;
+		final int[]  infectious;
+		final int[]  next;
+
+		CascadeState(int size) {
+			infected = new long[(size + 63) >>> 6];
+			infectious = new int[size];
+			next = new int[size];
+		}
+
+		long[] clear() {
+			Arrays.fill(infected, 0);
+			return infected;
+		}
+	}
+
+	/**
+	 * Per-node mean and variance of the spreading time, and the fraction of trials that reached the finish fraction.
+	 * Means and variances are {@link Double#NaN} for nodes where no trial (resp. fewer than two trials) finished.
+	 */
+	public static final class CascadeStatistics {
+		private final double[] means;
+		private final double[] variances;
+		private final double[] finishProbabilities;
+
+		CascadeStatistics(int size) {
+			means = new double[size];
+			variances = new double[size];
+			finishProbabilities = new double[size];
+		}
+
+		void set(int node, long count, long sum, long sumSq, int numTrials) {
+			means[node] = count == 0 ? Double.NaN : sum / (double)count;
+			variances[node] = count < 2 ? Double.NaN : (sumSq - sum * (double)sum / count) / (count - 1);
+			finishProbabilities[node] = count / (double)numTrials;
+		}
+
+		public double[] getMeans()               { return means; }
+
+		public double[] getVariances()           { return variances; }
+
+		public double[] getFinishProbabilities() { return finishProbabilities; }
+	}
+}
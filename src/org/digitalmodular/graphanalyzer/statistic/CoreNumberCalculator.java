@@ -0,0 +1,207 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Batagelj, V. & Zaversnik, M. (2003), ‘An O(m) Algorithm for Cores Decomposition of Networks’, CoRR cs.DS/0310049.
+ * <p>
+ * The core number of a node is the largest {@code k} such that the node belongs to a subgraph in which every node has
+ * at least {@code k} neighbors. Large graphs are peeled level by level in parallel instead (Kabir, H. & Madduri, K.
+ * (2017), ‘Parallel k-Core Decomposition on Multicore Platforms’, IPDPSW 2017), which gives the same result.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class CoreNumberCalculator implements LocalGraphStatisticCalculator<SparseGraph> {
+	public static final CoreNumberCalculator INSTANCE = new CoreNumberCalculator();
+
+	/** Graphs with fewer nodes than this are not worth the overhead of the parallel algorithm. */
+	private static final int PARALLEL_THRESHOLD = 4096;
+
+	private CoreNumberCalculator() {
+		if (INSTANCE != null)
+			throw new AssertionError();
+	}
+
+	@Override
+	public String getName() { return "Core Number"; }
+
+	@Override
+	public String getAbbreviation() { return "KC"; }
+
+	@Override
+	public double[] calculateAll(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+
+		int[] coreNumbers;
+		if (size >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1)
+			coreNumbers = calculateCoreNumbersInParallel(graph);
+		else
+			coreNumbers = new BucketPeeling(graph).coreNumbers;
+
+		double[] result = new double[size];
+		for (int node = 0; node < size; node++)
+			result[node] = coreNumbers[node];
+
+		return result;
+	}
+
+	public static int[] calculateCoreNumbers(SparseGraph graph) {
+		requireNonNull(graph);
+
+		return new BucketPeeling(graph).coreNumbers;
+	}
+
+	/**
+	 * Returns the nodes in the order they're peeled off. Every node has at most <em>degeneracy</em> (the highest core
+	 * number) neighbors later in this order, which makes it a good orientation for triangle counting.
+	 */
+	public static int[] calculateDegeneracyOrdering(SparseGraph graph) {
+		requireNonNull(graph);
+
+		return new BucketPeeling(graph).ordering;
+	}
+
+	public static int[] calculateCoreNumbersInParallel(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+
+		AtomicIntegerArray degrees     = new AtomicIntegerArray(size);
+		boolean[]          removed     = new boolean[size];
+		int[]              coreNumbers = new int[size];
+		IntStream.range(0, size).parallel().forEach(node -> degrees.set(node, graph.numNeighbors(node)));
+
+		int numRemoved = 0;
+		for (int level = 0; numRemoved < size; level++) {
+			int k = level;
+
+			int[] frontier = IntStream.range(0, size)
+			                          .parallel()
+			                          .filter(node -> !removed[node] && degrees.get(node) <= k)
+			                          .toArray();
+
+			while (frontier.length > 0) {
+				for (int node : frontier) {
+					removed[node] = true;
+					coreNumbers[node] = k;
+				}
+				numRemoved += frontier.length;
+
+				// A neighbor joins the next frontier exactly when its degree drops to k.
+				frontier = IntStream.of(frontier)
+				                    .parallel()
+				                    .flatMap(node -> IntStream.range(0, graph.numNeighbors(node))
+				                                              .map(i -> graph.getNeighbor(node, i))
+				                                              .filter(neighbor -> !removed[neighbor] &&
+				                                                                  degrees.decrementAndGet(neighbor) == k))
+				                    .toArray();
+			}
+		}
+
+		return coreNumbers;
+	}
+
+	/**
+	 * The sequential O(n + m) algorithm: nodes are kept in bins by current degree, and the lowest bin is peeled.
+	 */
+	private static final class BucketPeeling {
+		final int[] coreNumbers;
+		final int[] ordering;
+
+		BucketPeeling(SparseGraph graph) {
+			int size = graph.size();
+
+			int[] degrees   = new int[size];
+			int   maxDegree = 0;
+			for (int node = 0; node < size; node++) {
+				degrees[node] = graph.numNeighbors(node);
+				maxDegree = Math.max(maxDegree, degrees[node]);
+			}
+
+			// Counting sort by degree. binStarts[d] is the index in 'ordering' where the nodes of degree d start.
+			int[] binStarts = new int[maxDegree + 1];
+			for (int node = 0; node < size; node++)
+				binStarts[degrees[node]]++;
+
+			for (int degree = 0, start = 0; degree <= maxDegree; degree++) {
+				int count = binStarts[degree];
+				binStarts[degree] = start;
+				start += count;
+			}
+
+			int[] nodes     = new int[size];
+			int[] positions = new int[size];
+			for (int node = 0; node < size; node++) {
+				positions[node] = binStarts[degrees[node]]++;
+				nodes[positions[node]] = node;
+			}
+
+			for (int degree = maxDegree; degree > 0; degree--)
+				binStarts[degree] = binStarts[degree - 1];
+			binStarts[0] = 0;
+
+			for (int i = 0; i < size; i++) {
+				int node = nodes[i];
+
+				int numNeighbors = graph.numNeighbors(node);
+				for (int j = 0; j < numNeighbors; j++) {
+					int neighbor = graph.getNeighbor(node, j);
+					if (degrees[neighbor] <= degrees[node])
+						continue;
+
+					// Move the neighbor to the start of its bin, then shrink the bin to exclude it.
+					int neighborDegree   = degrees[neighbor];
+					int neighborPosition = positions[neighbor];
+					int firstPosition    = binStarts[neighborDegree];
+					int firstNode        = nodes[firstPosition];
+					if (neighbor != firstNode) {
+						positions[neighbor] = firstPosition;
+						nodes[neighborPosition] = firstNode;
+						positions[firstNode] = neighborPosition;
+						nodes[firstPosition] = neighbor;
+					}
+
+					binStarts[neighborDegree]++;
+					degrees[neighbor]--;
+				}
+			}
+
+			coreNumbers = degrees;
+			ordering = nodes;
+		}
+	}
+}
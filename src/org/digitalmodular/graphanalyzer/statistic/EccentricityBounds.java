@@ -0,0 +1,204 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+
+import org.digitalmodular.graphapi.BreadthFirstSearch;
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Takes, F. W. & Kosters, W. A. (2011), ‘Determining the diameter of small world networks’, CIKM 2011, 1191–1196.
+ * <p>
+ * Keeps a lower and upper bound of the eccentricity of every node. Each breadth-first search from a node {@code v}
+ * tightens the bounds of every other node {@code w} to {@code max(ecc(v) - d(v, w), d(v, w))} and
+ * {@code ecc(v) + d(v, w)}. Nodes are removed from the candidates as soon as their bounds can't influence the goal
+ * anymore. On small-world graphs only a handful of searches are needed.
+ * <p>
+ * Requires a connected graph.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+final class EccentricityBounds {
+	enum Goal {
+		ALL_ECCENTRICITIES,
+		DIAMETER,
+		RADIUS
+	}
+
+	private final SparseGraph        graph;
+	private final BreadthFirstSearch search;
+	private final int[]              lower;
+	private final int[]              upper;
+	private final int[]              candidates;
+
+	private int numCandidates;
+	private int numSearches = 0;
+
+	EccentricityBounds(SparseGraph graph) {
+		this.graph = graph;
+
+		int size = graph.size();
+		search = new BreadthFirstSearch(size);
+		lower = new int[size];
+		upper = new int[size];
+		candidates = new int[size];
+
+		Arrays.fill(upper, Integer.MAX_VALUE);
+		for (int i = 0; i < size; i++)
+			candidates[i] = i;
+
+		numCandidates = size;
+	}
+
+	/**
+	 * @return {@code false} if the graph is not connected.
+	 */
+	boolean calculate(Goal goal) {
+		boolean pickHighUpper = true;
+
+		while (numCandidates > 0) {
+			int node = pickHighUpper ? findHighestUpper() : findLowestLower();
+			pickHighUpper = !pickHighUpper;
+
+			search.search(graph, node);
+			numSearches++;
+
+			if (search.getNumReached() != graph.size())
+				return false;
+
+			updateBounds(search.getNumLevels() - 1);
+			prune(goal);
+
+			if (isFinished(goal))
+				break;
+		}
+
+		return true;
+	}
+
+	int getLower(int node) { return lower[node]; }
+
+	int getUpper(int node) { return upper[node]; }
+
+	int getNumSearches()   { return numSearches; }
+
+	int getDiameter() {
+		int diameter = 0;
+		for (int eccentricity : lower)
+			diameter = Math.max(diameter, eccentricity);
+
+		return diameter;
+	}
+
+	int getRadius() {
+		int radius = Integer.MAX_VALUE;
+		for (int eccentricity : upper)
+			radius = Math.min(radius, eccentricity);
+
+		return radius;
+	}
+
+	private void updateBounds(int eccentricity) {
+		for (int i = 0; i < numCandidates; i++) {
+			int node     = candidates[i];
+			int distance = search.getDistance(node);
+
+			lower[node] = Math.max(lower[node], Math.max(eccentricity - distance, distance));
+			upper[node] = Math.min(upper[node], eccentricity + distance);
+		}
+	}
+
+	private void prune(Goal goal) {
+		int diameterLower = 0;
+		int diameterUpper = 0;
+		int radiusUpper   = Integer.MAX_VALUE;
+		for (int i = 0; i < lower.length; i++) {
+			diameterLower = Math.max(diameterLower, lower[i]);
+			diameterUpper = Math.max(diameterUpper, upper[i]);
+			radiusUpper = Math.min(radiusUpper, upper[i]);
+		}
+
+		for (int i = numCandidates - 1; i >= 0; i--) {
+			int node = candidates[i];
+
+			boolean remove = lower[node] == upper[node];
+			if (goal == Goal.DIAMETER)
+				remove |= upper[node] <= diameterLower && lower[node] * 2 >= diameterUpper;
+			else if (goal == Goal.RADIUS)
+				remove |= lower[node] > radiusUpper;
+
+			if (remove)
+				candidates[i] = candidates[--numCandidates];
+		}
+	}
+
+	private boolean isFinished(Goal goal) {
+		switch (goal) {
+			case DIAMETER:
+				int diameterUpper = 0;
+				for (int eccentricity : upper)
+					diameterUpper = Math.max(diameterUpper, eccentricity);
+
+				return getDiameter() == diameterUpper;
+			case RADIUS:
+				int radiusLower = Integer.MAX_VALUE;
+				for (int eccentricity : lower)
+					radiusLower = Math.min(radiusLower, eccentricity);
+
+				return getRadius() == radiusLower;
+			default:
+				return false;
+		}
+	}
+
+	/** Ties are broken by degree, because high-degree nodes tighten more bounds. */
+	private int findHighestUpper() {
+		int best = candidates[0];
+		for (int i = 1; i < numCandidates; i++) {
+			int node = candidates[i];
+			if (upper[node] > upper[best] ||
+			    upper[node] == upper[best] && graph.numNeighbors(node) > graph.numNeighbors(best))
+				best = node;
+		}
+
+		return best;
+	}
+
+	private int findLowestLower() {
+		int best = candidates[0];
+		for (int i = 1; i < numCandidates; i++) {
+			int node = candidates[i];
+			if (lower[node] < lower[best] ||
+			    lower[node] == lower[best] && graph.numNeighbors(node) > graph.numNeighbors(best))
+				best = node;
+		}
+
+		return best;
+	}
+}
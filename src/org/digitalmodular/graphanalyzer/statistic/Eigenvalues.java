@@ -0,0 +1,69 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Eigenvalues found by {@link LanczosSolver}, with how well they have converged. When the iteration limit is reached
+ * first, the eigenvalues are only approximations, and shouldn't be compared with converged ones.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class Eigenvalues {
+	private final double[] values;
+	private final double[] residuals;
+	private final boolean  converged;
+
+	Eigenvalues(double[] values, double[] residuals, boolean converged) {
+		this.values = requireNonNull(values, "values");
+		this.residuals = requireNonNull(residuals, "residuals");
+		this.converged = converged;
+	}
+
+	static Eigenvalues of(LanczosSolver solver) {
+		return new Eigenvalues(solver.getEigenvalues(), solver.getResiduals(), solver.isConverged());
+	}
+
+	/**
+	 * @return The eigenvalues, in the order documented by the method that returned this.
+	 */
+	public double[] getValues()    { return values.clone(); }
+
+	/**
+	 * @return For each eigenvalue, the residual norm {@code |A·x - λ·x|} of its eigenvector.
+	 */
+	public double[] getResiduals() { return residuals.clone(); }
+
+	public int size()              { return values.length; }
+
+	/**
+	 * @return Whether all eigenvalues have converged to within the solver's tolerance.
+	 */
+	public boolean isConverged()   { return converged; }
+}
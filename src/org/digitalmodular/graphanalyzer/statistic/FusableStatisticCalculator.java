@@ -0,0 +1,107 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.BreadthFirstSearch;
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * A {@link LocalGraphStatisticCalculator} that can calculate the value of every node independently, so it can be
+ * scheduled together with other statistics in a single pass over the nodes, sharing traversals where possible.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public interface FusableStatisticCalculator extends LocalGraphStatisticCalculator<SparseGraph> {
+	/**
+	 * Whether the per-node calculation uses the breadth-first search from that node. When multiple statistics need
+	 * it, the search is performed only once per node.
+	 */
+	default boolean needsBreadthFirstSearch() { return false; }
+
+	/**
+	 * Creates the state for calculating nodes of {@code graph}. Instances are never shared between threads.
+	 */
+	NodeCalculator newNodeCalculator(SparseGraph graph);
+
+	/**
+	 * Called once after the values of all nodes have been calculated, to apply any graph-wide post-processing.
+	 */
+	default void finish(double[] values) { }
+
+	/**
+	 * Calculates the nodes in parallel, one unit of work per node. When stopped early, the nodes that weren't
+	 * calculated are {@link Double#NaN}, and {@link #finish(double[])} isn't called.
+	 */
+	@Override
+	default PartialResult calculateAll(SparseGraph graph, CalculationControl control) {
+		requireNonNull(graph, "graph");
+		requireNonNull(control, "control");
+
+		int size = graph.size();
+
+		double[] values = new double[size];
+		Arrays.fill(values, Double.NaN);
+		control.start(size);
+
+		ThreadLocal<NodeCalculator>     nodeCalculators = ThreadLocal.withInitial(() -> newNodeCalculator(graph));
+		ThreadLocal<BreadthFirstSearch> searches        = ThreadLocal.withInitial(
+				() -> needsBreadthFirstSearch() ? new BreadthFirstSearch(size) : null);
+		IntStream.range(0, size)
+		         .parallel()
+		         .forEach(node -> {
+			         if (control.shouldStop())
+				         return;
+
+			         BreadthFirstSearch search = searches.get();
+			         if (search != null)
+				         search.search(graph, node);
+
+			         values[node] = nodeCalculators.get().calculate(node, search);
+			         control.advance(1);
+		         });
+
+		int numDone = control.getNumDone();
+		if (numDone == size)
+			finish(values);
+
+		return new PartialResult(values, numDone, size);
+	}
+
+	@FunctionalInterface
+	interface NodeCalculator {
+		/**
+		 * @param search The completed search from {@code node}, or {@code null} if
+		 *               {@link #needsBreadthFirstSearch()} returned {@code false}.
+		 */
+		double calculate(int node, BreadthFirstSearch search);
+	}
+}
@@ -37,5 +37,17 @@ public interface GlobalGraphStatisticCalculator<G extends Graph> {
 
 	String getAbbreviation();
 
+	/**
+	 * Describes the parameters that influence the result, e.g. for caching results. Empty for calculators without
+	 * parameters.
+	 */
+	default String getParameters() { return ""; }
+
+	/**
+	 * Identifies the implementation, for persistent caches of results. Must be incremented whenever a change to the
+	 * calculator changes its results, or results of the old implementation are used as if they're still valid.
+	 */
+	default int getResultVersion() { return 1; }
+
 	double calculate(G graph);
 }
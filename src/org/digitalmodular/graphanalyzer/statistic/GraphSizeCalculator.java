@@ -28,7 +28,7 @@ package org.digitalmodular.graphanalyzer.statistic;
 
 import static java.util.Objects.requireNonNull;
 
-import org.digitalmodular.graphapi.NeighborGraph;
+import org.digitalmodular.graphapi.SparseGraph;
 
 /**
  * Directly returns the number of nodes in the graph.
@@ -36,7 +36,7 @@ import org.digitalmodular.graphapi.NeighborGraph;
  * @author Mark Jeronimus
  */
 // Created 2018-02-04
-public final class GraphSizeCalculator implements GlobalGraphStatisticCalculator<NeighborGraph> {
+public final class GraphSizeCalculator implements GlobalGraphStatisticCalculator<SparseGraph> {
 	public static final GraphSizeCalculator INSTANCE = new GraphSizeCalculator();
 
 	private GraphSizeCalculator() {
@@ -51,7 +51,7 @@ public final class GraphSizeCalculator implements GlobalGraphStatisticCalculator
 	public String getAbbreviation() { return "GS"; }
 
 	@Override
-	public double calculate(NeighborGraph graph) {
+	public double calculate(SparseGraph graph) {
 		requireNonNull(graph);
 
 		return graph.size();
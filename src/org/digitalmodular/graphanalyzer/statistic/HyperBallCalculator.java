@@ -0,0 +1,315 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Boldi, P., Vigna, S. (2013), ‘In-Core Computation of Geometric Centralities with HyperBall: A Hundred Billion Nodes
+ * and Beyond’, Proceedings of the 2013 IEEE 13th International Conference on Data Mining Workshops, 621–628.
+ * <p>
+ * Flajolet, P., Fusy, É., Gandouet, O., Meunier, F. (2007), ‘HyperLogLog: the analysis of a near-optimal cardinality
+ * estimation algorithm’, Proceedings of the 2007 Conference on Analysis of Algorithms, 127–146.
+ * <p>
+ * Every node keeps a HyperLogLog counter of the nodes within distance {@code t}. Iteration {@code t + 1} takes the
+ * register-wise maximum of the counters of each node and its neighbors, in parallel over the nodes and
+ * double-buffered, so {@code t} linear passes give all distances up to {@code t}. Only nodes with a neighbor that
+ * changed in the previous pass are recalculated. The increments of the estimated ball sizes give the approximate
+ * number of nodes at each distance, from which the closeness and harmonic centralities and the neighborhood function
+ * (hop plot) follow. Memory is {@code size * 2^log2NumRegisters} bytes per buffer.
+ * <p>
+ * The relative standard error of each counter is about {@code 1.04 / sqrt(2^log2NumRegisters)}.
+ * <p>
+ * {@link #calculateAll(SparseGraph)} returns the harmonic centrality, normalized to [0, 1].
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public class HyperBallCalculator implements LocalGraphStatisticCalculator<SparseGraph> {
+	public static final HyperBallCalculator INSTANCE = new HyperBallCalculator(7, 0);
+
+	private final int  log2NumRegisters;
+	private final long seed;
+
+	public HyperBallCalculator(int log2NumRegisters, long seed) {
+		if (log2NumRegisters < 4 || log2NumRegisters > 16)
+			throw new IllegalArgumentException("'log2NumRegisters' should be in the range [4, 16]: " +
+			                                   log2NumRegisters);
+
+		this.log2NumRegisters = log2NumRegisters;
+		this.seed = seed;
+	}
+
+	@Override
+	public String getName() { return "Harmonic Centrality"; }
+
+	@Override
+	public String getAbbreviation() { return "HC"; }
+
+	@Override
+	public int getResultVersion() { return 2; }
+
+	@Override
+	public String getParameters() {
+		return "log2NumRegisters=" + log2NumRegisters + ",seed=" + seed;
+	}
+
+	@Override
+	public double[] calculateAll(SparseGraph graph) {
+		return calculateStatistics(graph).getHarmonicCentralities();
+	}
+
+	public NeighborhoodStatistics calculateStatistics(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size         = graph.size();
+		int numRegisters = 1 << log2NumRegisters;
+
+		byte[]    registers     = new byte[size * numRegisters];
+		byte[]    nextRegisters = new byte[size * numRegisters];
+		boolean[] changed       = new boolean[size];
+		boolean[] nextChanged   = new boolean[size];
+
+		for (int node = 0; node < size; node++) {
+			long hash     = mix64(seed + (node + 1L) * 0x9E3779B97F4A7C15L);
+			int  register = (int)hash & (numRegisters - 1);
+			int  rank     = Long.numberOfLeadingZeros(hash >>> log2NumRegisters) - log2NumRegisters + 1;
+			registers[node * numRegisters + register] = (byte)rank;
+			changed[node] = true;
+		}
+
+		double[] estimates    = new double[size];
+		double[] distanceSums = new double[size];
+		double[] harmonicSums = new double[size];
+		Arrays.fill(estimates, 1);
+
+		double[] neighborhoodFunction = new double[16];
+		neighborhoodFunction[0] = size;
+
+		int distance = 0;
+		while (true) {
+			distance++;
+
+			byte[]    current        = registers;
+			byte[]    next           = nextRegisters;
+			boolean[] currentChanged = changed;
+			boolean[] newChanged     = nextChanged;
+			int       t              = distance;
+
+			double ballSizeSum = IntStream.range(0, size).parallel().mapToDouble(node -> {
+				int offset = node * numRegisters;
+				System.arraycopy(current, offset, next, offset, numRegisters);
+
+				boolean neighborChanged = false;
+				int     numNeighbors    = graph.numNeighbors(node);
+				for (int i = 0; i < numNeighbors; i++) {
+					int neighbor = graph.getNeighbor(node, i);
+					if (!currentChanged[neighbor])
+						continue;
+
+					neighborChanged = true;
+					int neighborOffset = neighbor * numRegisters;
+					for (int r = 0; r < numRegisters; r++)
+						if (next[offset + r] < current[neighborOffset + r])
+							next[offset + r] = current[neighborOffset + r];
+				}
+
+				newChanged[node] = false;
+				if (neighborChanged) {
+					for (int r = 0; r < numRegisters; r++) {
+						if (next[offset + r] != current[offset + r]) {
+							newChanged[node] = true;
+							break;
+						}
+					}
+				}
+
+				if (newChanged[node]) {
+					double estimate = estimate(next, offset, numRegisters);
+					double increase = Math.max(0, estimate - estimates[node]);
+					distanceSums[node] += t * increase;
+					harmonicSums[node] += increase / t;
+					estimates[node] = Math.max(estimate, estimates[node]);
+				}
+
+				return estimates[node];
+			}).sum();
+
+			registers = next;
+			nextRegisters = current;
+			changed = newChanged;
+			nextChanged = currentChanged;
+
+			if (IntStream.range(0, size).noneMatch(node -> newChanged[node]))
+				break;
+
+			if (distance == neighborhoodFunction.length)
+				neighborhoodFunction = Arrays.copyOf(neighborhoodFunction, distance * 2);
+			neighborhoodFunction[distance] = ballSizeSum;
+		}
+
+		return new NeighborhoodStatistics(Arrays.copyOf(neighborhoodFunction, distance),
+		                                  estimates, distanceSums, harmonicSums);
+	}
+
+	private static double estimate(byte[] registers, int offset, int numRegisters) {
+		double sum       = 0;
+		int    numZeroes = 0;
+		for (int r = 0; r < numRegisters; r++) {
+			int rank = registers[offset + r];
+			sum += Double.longBitsToDouble((long)(1023 - rank) << 52); // 2^-rank
+			if (rank == 0)
+				numZeroes++;
+		}
+
+		double alpha    = numRegisters == 16 ? 0.673 :
+		                  numRegisters == 32 ? 0.697 :
+		                  numRegisters == 64 ? 0.709 :
+		                  0.7213 / (1 + 1.079 / numRegisters);
+		double estimate = alpha * numRegisters * numRegisters / sum;
+
+		// Small range correction (linear counting)
+		if (estimate <= 2.5 * numRegisters && numZeroes > 0)
+			estimate = numRegisters * Math.log(numRegisters / (double)numZeroes);
+
+		return estimate;
+	}
+
+	/** SplitMix64 finalizer. */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * The outcome of {@link #calculateStatistics(SparseGraph)}. All values are estimates.
+	 */
+	public static final class NeighborhoodStatistics {
+		private final double[] neighborhoodFunction;
+		private final double[] reachable;
+		private final double[] distanceSums;
+		private final double[] harmonicSums;
+
+		NeighborhoodStatistics(double[] neighborhoodFunction,
+		                       double[] reachable,
+		                       double[] distanceSums,
+		                       double[] harmonicSums) {
+			this.neighborhoodFunction = neighborhoodFunction;
+			this.reachable = reachable;
+			this.distanceSums = distanceSums;
+			this.harmonicSums = harmonicSums;
+		}
+
+		/**
+		 * @return For each distance {@code t}, the number of ordered pairs of nodes (including each node with itself)
+		 * within distance {@code t}. The last element is the number of reachable pairs.
+		 */
+		public double[] getNeighborhoodFunction() { return neighborhoodFunction.clone(); }
+
+		/**
+		 * @return For each distance {@code t > 0}, the number of ordered pairs of nodes at exactly that distance.
+		 */
+		public double[] getDistanceDistribution() {
+			double[] distribution = new double[neighborhoodFunction.length];
+			for (int t = 1; t < distribution.length; t++)
+				distribution[t] = neighborhoodFunction[t] - neighborhoodFunction[t - 1];
+
+			return distribution;
+		}
+
+		/**
+		 * @return The average distance over all reachable pairs of different nodes.
+		 */
+		public double getAveragePathLength() {
+			double[] distribution = getDistanceDistribution();
+
+			double sum   = 0;
+			double count = 0;
+			for (int t = 1; t < distribution.length; t++) {
+				sum += t * distribution[t];
+				count += distribution[t];
+			}
+
+			return sum / count;
+		}
+
+		/**
+		 * @param fraction Typically 0.9.
+		 * @return The (interpolated) distance within which the given fraction of all reachable pairs lie.
+		 */
+		public double getEffectiveDiameter(double fraction) {
+			if (fraction <= 0 || fraction > 1)
+				throw new IllegalArgumentException("'fraction' should be in the range (0, 1]: " + fraction);
+
+			double threshold = fraction * neighborhoodFunction[neighborhoodFunction.length - 1];
+
+			int t = 0;
+			while (neighborhoodFunction[t] < threshold)
+				t++;
+
+			if (t == 0)
+				return 0;
+
+			double previous = neighborhoodFunction[t - 1];
+			return t - 1 + (threshold - previous) / (neighborhoodFunction[t] - previous);
+		}
+
+		/**
+		 * @return The number of distances that were needed, a lower bound of the diameter.
+		 */
+		public int getNumIterations() { return neighborhoodFunction.length - 1; }
+
+		/**
+		 * @return For each node, the reciprocal of the average distance to all nodes it can reach, or 0 if it can
+		 * reach none.
+		 */
+		public double[] getClosenessCentralities() {
+			double[] closeness = new double[reachable.length];
+			for (int node = 0; node < closeness.length; node++)
+				closeness[node] = distanceSums[node] > 0 ? (reachable[node] - 1) / distanceSums[node] : 0;
+
+			return closeness;
+		}
+
+		/**
+		 * @return For each node, the sum of the reciprocals of the distances to all other nodes, divided by
+		 * {@code size - 1}.
+		 */
+		public double[] getHarmonicCentralities() {
+			double[] harmonic = new double[harmonicSums.length];
+			for (int node = 0; node < harmonic.length; node++)
+				harmonic[node] = harmonic.length > 1 ? harmonicSums[node] / (harmonic.length - 1) : 0;
+
+			return harmonic;
+		}
+	}
+}
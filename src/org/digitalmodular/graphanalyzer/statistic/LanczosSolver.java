@@ -0,0 +1,393 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Lanczos, C. (1950), ‘An iteration method for the solution of the eigenvalue problem of linear differential and
+ * integral operators’, Journal of Research of the National Bureau of Standards 45(4), 255–282.
+ * <p>
+ * Wu, K. and Simon, H. (2000), ‘Thick-restart Lanczos method for large symmetric eigenvalue problems’, SIAM Journal
+ * on Matrix Analysis and Applications 22(2), 602–616.
+ * <p>
+ * Finds the extremal eigenvalues of a symmetric matrix that is only available as a matrix-vector product, so the
+ * matrix is never built. Uses full reorthogonalization (classical Gram-Schmidt, twice), which keeps the Krylov basis
+ * orthogonal at the cost of storing it. Repeated eigenvalues are therefore only found once.
+ * <p>
+ * The basis is limited in size. When it's full, the iteration is restarted with the best approximations of the
+ * wanted eigenvectors (plus some more) and the residual direction, which keeps the information gathered so far.
+ * This way, eigenvalues in a dense cluster, like the algebraic connectivity of graphs with many leaves, can take
+ * thousands of iterations without needing thousands of basis vectors. The eigenvalues of the small projected matrix
+ * are found with the cyclic Jacobi method.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+final class LanczosSolver {
+	/** The maximum number of matrix-vector products. */
+	private static final int    MAX_ITERATIONS    = 20000;
+	private static final int    MIN_BASIS_SIZE    = 60;
+	private static final int    CHECK_INTERVAL    = 10;
+	/** Relative to the norm of the operator. */
+	private static final double TOLERANCE         = 1.0e-10;
+	private static final double EPSILON           = StrictMath.pow(2, -52);
+	private static final int    MAX_JACOBI_SWEEPS = 100;
+
+	@FunctionalInterface
+	interface Operator {
+		/** Calculates {@code out = A · in}. */
+		void apply(double[] in, double[] out);
+	}
+
+	private final int        size;
+	private final Operator   operator;
+	private final double     normBound;
+	private final double[][] deflation;
+
+	private double[][] basis         = null;
+	private int        basisSize     = 0;
+	private double[]   eigenvalues   = null;
+	private double[]   residuals     = null;
+	private double[][] ritzVectors   = null;
+	private int        numIterations = 0;
+	private boolean    converged     = false;
+
+	/**
+	 * @param normBound An upper bound of the norm of the operator (the largest absolute eigenvalue), like the maximum
+	 *                  degree for an adjacency matrix. The tolerance of the residuals is relative to it, as the
+	 *                  residuals can't get much smaller than the rounding errors of the product, which scale with the
+	 *                  norm, regardless of how small the eigenvalue is.
+	 * @param deflation Orthonormal vectors to exclude from the search, for example known eigenvectors.
+	 */
+	LanczosSolver(int size, Operator operator, double normBound, double[]... deflation) {
+		if (!(normBound >= 0))
+			throw new IllegalArgumentException("'normBound' can't be negative: " + normBound);
+
+		this.size = size;
+		this.operator = operator;
+		this.normBound = Math.max(normBound, Double.MIN_NORMAL);
+		this.deflation = deflation;
+	}
+
+	/**
+	 * Iterates until the {@code numWanted} largest (or smallest) eigenvalues have converged, the Krylov space is
+	 * exhausted, or the maximum number of iterations is reached. In the last case the eigenvalues are only
+	 * approximations, which is reflected in the return value and {@link #getResiduals()}.
+	 *
+	 * @return Whether all returned eigenvalues have converged. Fewer than {@code numWanted} eigenvalues can be
+	 * returned when the matrix doesn't have that many distinct eigenvalues.
+	 */
+	boolean solve(int numWanted, boolean largest) {
+		int maxBasisSize = Math.min(size - deflation.length, Math.max(MIN_BASIS_SIZE, 3 * numWanted));
+		if (maxBasisSize < 1) {
+			eigenvalues = new double[0];
+			residuals = new double[0];
+			converged = true;
+			return true;
+		}
+
+		// Keep the wanted ones and half of the rest, so the restarted iteration doesn't lose track of the neighbors
+		int numKept = Math.min(maxBasisSize - 1, numWanted + (maxBasisSize - numWanted) / 2);
+
+		basis = new double[maxBasisSize][];
+		basisSize = 0;
+		numIterations = 0;
+		double[][] projection = new double[maxBasisSize][maxBasisSize];
+
+		double[] vector = new double[size];
+		SplittableRandom random = new SplittableRandom(size);
+		for (int i = 0; i < size; i++)
+			vector[i] = random.nextDouble() - 0.5;
+		orthogonalize(vector, 0);
+		scale(vector, 1 / norm(vector));
+
+		double[] work = new double[size];
+		while (true) {
+			int j = basisSize;
+			basis[j] = vector;
+			basisSize++;
+			numIterations++;
+
+			operator.apply(vector, work);
+			double[] coefficients = orthogonalize(work, basisSize);
+			double[] correction   = orthogonalize(work, basisSize);
+			for (int i = 0; i <= j; i++) {
+				projection[i][j] = coefficients[i] + correction[i];
+				projection[j][i] = projection[i][j];
+			}
+
+			double beta = norm(work);
+
+			boolean exhausted = beta <= EPSILON * normBound;
+			boolean full      = basisSize == maxBasisSize;
+			boolean outOfTime = numIterations >= MAX_ITERATIONS;
+			if (exhausted || full || outOfTime || numIterations % CHECK_INTERVAL == 0) {
+				double[][] decomposition = decompose(projection, beta, numWanted, largest);
+				if (converged && eigenvalues.length == numWanted || exhausted || outOfTime)
+					break;
+
+				if (full) {
+					restart(projection, decomposition, beta, numKept, largest);
+					if (basisSize == 0)
+						break;
+				}
+			}
+
+			vector = work;
+			scale(vector, 1 / beta);
+			work = new double[size];
+		}
+
+		return converged;
+	}
+
+	int getNumIterations() { return numIterations; }
+
+	/**
+	 * @return The eigenvalues, largest or smallest first, depending on the search direction. Only approximations when
+	 * {@link #isConverged()} is {@code false}.
+	 */
+	double[] getEigenvalues() { return eigenvalues.clone(); }
+
+	/**
+	 * @return For each eigenvalue, the residual norm {@code |A·x - λ·x|} of its eigenvector.
+	 */
+	double[] getResiduals()   { return residuals.clone(); }
+
+	boolean isConverged()     { return converged; }
+
+	/** Calculates the (normalized) eigenvector for the i-th returned eigenvalue. */
+	double[] getEigenvector(int index) {
+		return combine(ritzVectors[index]);
+	}
+
+	/**
+	 * Calculates the eigenvalues and residuals of the current projected matrix, and whether they have converged.
+	 *
+	 * @return The full eigendecomposition of the projected matrix: the eigenvalues in ascending order, followed by
+	 * the eigenvectors, as rows.
+	 */
+	private double[][] decompose(double[][] projection, double beta, int numWanted, boolean largest) {
+		int n = basisSize;
+
+		double[][] a = new double[n][];
+		for (int i = 0; i < n; i++)
+			a[i] = Arrays.copyOf(projection[i], n);
+
+		double[][] decomposition = jacobi(a);
+		double[]   d             = decomposition[0];
+
+		int numFound = Math.min(numWanted, n);
+		eigenvalues = new double[numFound];
+		residuals = new double[numFound];
+		ritzVectors = new double[numFound][];
+
+		converged = true;
+		for (int i = 0; i < numFound; i++) {
+			int column = largest ? n - 1 - i : i;
+			eigenvalues[i] = d[column];
+			ritzVectors[i] = decomposition[column + 1];
+
+			residuals[i] = Math.abs(beta * decomposition[column + 1][n - 1]);
+			converged &= residuals[i] <= TOLERANCE * normBound;
+		}
+
+		return decomposition;
+	}
+
+	/**
+	 * Replaces the basis by the approximate eigenvectors of the {@code numKept} wanted eigenvalues. The projected
+	 * matrix becomes diagonal, except for the coupling with the residual direction, which becomes the next basis
+	 * vector.
+	 */
+	private void restart(double[][] projection, double[][] decomposition, double beta, int numKept, boolean largest) {
+		int n = basisSize;
+
+		double[][] newBasis = new double[numKept][];
+		double[]   coupling = new double[numKept];
+		for (int i = 0; i < numKept; i++) {
+			int column = largest ? n - 1 - i : i;
+			newBasis[i] = combine(decomposition[column + 1]);
+			coupling[i] = beta * decomposition[column + 1][n - 1];
+		}
+
+		for (double[] row : projection)
+			Arrays.fill(row, 0);
+
+		Arrays.fill(basis, null);
+		for (int i = 0; i < numKept; i++) {
+			basis[i] = newBasis[i];
+			int column = largest ? n - 1 - i : i;
+			projection[i][i] = decomposition[0][column];
+			projection[i][numKept] = coupling[i];
+			projection[numKept][i] = coupling[i];
+		}
+
+		basisSize = numKept;
+	}
+
+	/** Calculates the linear combination of the basis vectors with the given coefficients. */
+	private double[] combine(double[] coefficients) {
+		int      n      = basisSize;
+		double[] result = new double[size];
+		IntStream.range(0, size).parallel().forEach(row -> {
+			double sum = 0;
+			for (int k = 0; k < n; k++)
+				sum += coefficients[k] * basis[k][row];
+
+			result[row] = sum;
+		});
+
+		return result;
+	}
+
+	/**
+	 * Removes the components along the deflation vectors and the first {@code count} basis vectors.
+	 *
+	 * @return The components along the basis vectors that were removed.
+	 */
+	private double[] orthogonalize(double[] vector, int count) {
+		for (double[] deflationVector : deflation)
+			axpy(-dot(vector, deflationVector), deflationVector, vector);
+
+		double[] coefficients = IntStream.range(0, count)
+		                                 .parallel()
+		                                 .mapToDouble(k -> dot(vector, basis[k]))
+		                                 .toArray();
+
+		IntStream.range(0, size).parallel().forEach(row -> {
+			double sum = 0;
+			for (int k = 0; k < count; k++)
+				sum += coefficients[k] * basis[k][row];
+
+			vector[row] -= sum;
+		});
+
+		return coefficients;
+	}
+
+	private static double dot(double[] a, double[] b) {
+		double sum = 0;
+		for (int i = 0; i < a.length; i++)
+			sum += a[i] * b[i];
+
+		return sum;
+	}
+
+	private static double norm(double[] a) { return Math.sqrt(dot(a, a)); }
+
+	private static void scale(double[] a, double factor) {
+		for (int i = 0; i < a.length; i++)
+			a[i] *= factor;
+	}
+
+	private static void axpy(double factor, double[] x, double[] y) {
+		for (int i = 0; i < y.length; i++)
+			y[i] += factor * x[i];
+	}
+
+	/**
+	 * Cyclic Jacobi eigenvalue algorithm for a small dense symmetric matrix, which is destroyed.
+	 *
+	 * @return The eigenvalues in ascending order, followed by the corresponding (normalized) eigenvectors, as rows.
+	 */
+	private static double[][] jacobi(double[][] a) {
+		int n = a.length;
+
+		double[][] v = new double[n][n];
+		for (int i = 0; i < n; i++)
+			v[i][i] = 1;
+
+		double total = 0;
+		for (double[] row : a)
+			total += dot(row, row);
+
+		for (int sweep = 0; sweep < MAX_JACOBI_SWEEPS; sweep++) {
+			double offDiagonal = 0;
+			for (int p = 0; p < n; p++)
+				for (int q = p + 1; q < n; q++)
+					offDiagonal += a[p][q] * a[p][q];
+
+			if (offDiagonal <= EPSILON * EPSILON * total)
+				break;
+
+			for (int p = 0; p < n; p++) {
+				for (int q = p + 1; q < n; q++) {
+					if (a[p][q] == 0)
+						continue;
+
+					double theta = (a[q][q] - a[p][p]) / (2 * a[p][q]);
+					double t     = Math.abs(theta) > 1.0e150
+					               ? 0.5 / theta
+					               : Math.copySign(1, theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+					double c     = 1 / Math.sqrt(t * t + 1);
+					double s     = t * c;
+
+					// a = Jᵀ·a·J, v = v·J
+					for (int k = 0; k < n; k++) {
+						double akp = a[k][p];
+						double akq = a[k][q];
+						a[k][p] = c * akp - s * akq;
+						a[k][q] = s * akp + c * akq;
+					}
+
+					for (int k = 0; k < n; k++) {
+						double apk = a[p][k];
+						double aqk = a[q][k];
+						a[p][k] = c * apk - s * aqk;
+						a[q][k] = s * apk + c * aqk;
+					}
+
+					for (int k = 0; k < n; k++) {
+						double vkp = v[k][p];
+						double vkq = v[k][q];
+						v[k][p] = c * vkp - s * vkq;
+						v[k][q] = s * vkp + c * vkq;
+					}
+				}
+			}
+		}
+
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++)
+			order[i] = i;
+		Arrays.sort(order, (i, j) -> Double.compare(a[i][i], a[j][j]));
+
+		double[][] result = new double[n + 1][n];
+		for (int i = 0; i < n; i++) {
+			int column = order[i];
+			result[0][i] = a[column][column];
+			for (int k = 0; k < n; k++)
+				result[i + 1][k] = v[k][column];
+		}
+
+		return result;
+	}
+}
@@ -26,6 +26,9 @@
  */
 package org.digitalmodular.graphanalyzer.statistic;
 
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+
 import org.digitalmodular.graphapi.Graph;
 import static org.digitalmodular.graphapi.GraphUtilities.networkAverage;
 
@@ -36,6 +39,29 @@ import static org.digitalmodular.graphapi.GraphUtilities.networkAverage;
 public interface LocalGraphStatisticCalculator<G extends Graph> extends GlobalGraphStatisticCalculator<G> {
 	double[] calculateAll(G graph);
 
+	/**
+	 * Like {@link #calculateAll(Graph)}, but reports progress to {@code control}, and returns early with an
+	 * incomplete result when it says to stop, see {@link PartialResult}.
+	 * <p>
+	 * This default treats the calculation as a single unit of work, so it can only stop before starting, in which
+	 * case all values are {@link Double#NaN}. Calculators that take long should override it.
+	 */
+	default PartialResult calculateAll(G graph, CalculationControl control) {
+		requireNonNull(graph, "graph");
+		requireNonNull(control, "control");
+
+		control.start(1);
+		if (control.shouldStop()) {
+			double[] values = new double[graph.size()];
+			Arrays.fill(values, Double.NaN);
+			return new PartialResult(values, 0, 1);
+		}
+
+		double[] values = calculateAll(graph);
+		control.advance(1);
+		return new PartialResult(values, 1, 1);
+	}
+
 	@Override
 	default double calculate(G graph) {
 		return networkAverage(calculateAll(graph), false);
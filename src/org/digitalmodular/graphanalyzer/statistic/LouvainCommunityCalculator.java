@@ -0,0 +1,451 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Blondel, V. D., Guillaume, J.-L., Lambiotte, R. & Lefebvre, E. (2008), ‘Fast unfolding of communities in large
+ * networks’, Journal of Statistical Mechanics: Theory and Experiment 2008(10), P10008.
+ * <p>
+ * Returns the community ID of every node, numbered in order of the lowest node in each community.
+ * {@link #calculate(SparseGraph)} returns the modularity instead of the average.
+ * <p>
+ * Local moves are calculated for all nodes in parallel against the assignment of the previous pass (Lu, H.,
+ * Halappanavar, M. & Kalyanaraman, A. (2015), ‘Parallel heuristics for scalable community detection’, Parallel
+ * Computing 47, 19–37). Two singletons only join each other in the direction of the lower ID, to prevent them from
+ * swapping forever. If a parallel pass doesn't improve modularity, a sequential pass is done instead, so modularity
+ * never decreases. Each level is aggregated into a weighted quotient graph of primitive arrays.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public class LouvainCommunityCalculator implements LocalGraphStatisticCalculator<SparseGraph> {
+	public static final LouvainCommunityCalculator INSTANCE = new LouvainCommunityCalculator(1);
+
+	private static final int    MAX_PASSES = 100;
+	private static final double MIN_GAIN   = 1.0e-7;
+
+	/** Values above 1 favor smaller communities, below 1 larger ones. */
+	private final double resolution;
+
+	public LouvainCommunityCalculator(double resolution) {
+		if (resolution <= 0)
+			throw new IllegalArgumentException("'resolution' should be positive: " + resolution);
+
+		this.resolution = resolution;
+	}
+
+	@Override
+	public String getName() { return "Louvain Community"; }
+
+	@Override
+	public String getAbbreviation() { return "LC"; }
+
+	@Override
+	public String getParameters() {
+		return "resolution=" + resolution;
+	}
+
+	@Override
+	public double calculate(SparseGraph graph) {
+		return detectCommunities(graph).getModularity();
+	}
+
+	@Override
+	public double[] calculateAll(SparseGraph graph) {
+		int[] communities = detectCommunities(graph).getCommunities();
+
+		double[] result = new double[communities.length];
+		for (int node = 0; node < communities.length; node++)
+			result[node] = communities[node];
+
+		return result;
+	}
+
+	public Communities detectCommunities(SparseGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+
+		LevelGraph originalGraph = new LevelGraph(graph);
+		LevelGraph levelGraph    = originalGraph;
+
+		int[] communities = new int[size];
+		for (int node = 0; node < size; node++)
+			communities[node] = node;
+
+		int numLevels = 0;
+		while (true) {
+			int[] levelCommunities = moveNodes(levelGraph);
+			int   numCommunities   = renumber(levelCommunities);
+			if (numCommunities == levelGraph.size)
+				break;
+
+			for (int node = 0; node < size; node++)
+				communities[node] = levelCommunities[communities[node]];
+
+			levelGraph = levelGraph.aggregate(levelCommunities, numCommunities);
+			numLevels++;
+		}
+
+		int    numCommunities = renumber(communities);
+		double modularity     = modularity(originalGraph, communities, communityTotals(originalGraph, communities));
+		return new Communities(communities, numCommunities, modularity, numLevels);
+	}
+
+	private int[] moveNodes(LevelGraph graph) {
+		int size = graph.size;
+
+		int[]    communities = new int[size];
+		int[]    sizes       = new int[size];
+		double[] totals      = graph.strengths.clone();
+		for (int node = 0; node < size; node++)
+			communities[node] = node;
+		Arrays.fill(sizes, 1);
+
+		if (graph.totalStrength == 0)
+			return communities;
+
+		ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(() -> new Accumulator(size));
+
+		double modularity = modularity(graph, communities, totals);
+		for (int pass = 0; pass < MAX_PASSES; pass++) {
+			int[]    current       = communities;
+			int[]    currentSizes  = sizes;
+			double[] currentTotals = totals;
+			int[] targets = IntStream.range(0, size)
+			                         .parallel()
+			                         .map(node -> findBestCommunity(graph, node, current, currentSizes, currentTotals,
+			                                                        accumulators.get()))
+			                         .toArray();
+			if (Arrays.equals(targets, communities))
+				break;
+
+			double[] targetTotals  = communityTotals(graph, targets);
+			double   newModularity = modularity(graph, targets, targetTotals);
+			if (newModularity - modularity >= MIN_GAIN) {
+				communities = targets;
+				totals = targetTotals;
+				sizes = communitySizes(targets);
+				modularity = newModularity;
+				continue;
+			}
+
+			int numMoved = moveNodesSequentially(graph, communities, sizes, totals, accumulators.get());
+			newModularity = modularity(graph, communities, totals);
+			if (numMoved == 0 || newModularity - modularity < MIN_GAIN)
+				break;
+
+			modularity = newModularity;
+		}
+
+		return communities;
+	}
+
+	private int moveNodesSequentially(LevelGraph graph, int[] communities, int[] sizes, double[] totals,
+	                                  Accumulator accumulator) {
+		int numMoved = 0;
+		for (int node = 0; node < graph.size; node++) {
+			int oldCommunity = communities[node];
+			int newCommunity = findBestCommunity(graph, node, communities, sizes, totals, accumulator);
+			if (newCommunity == oldCommunity)
+				continue;
+
+			communities[node] = newCommunity;
+			sizes[oldCommunity]--;
+			sizes[newCommunity]++;
+			totals[oldCommunity] -= graph.strengths[node];
+			totals[newCommunity] += graph.strengths[node];
+			numMoved++;
+		}
+
+		return numMoved;
+	}
+
+	private int findBestCommunity(LevelGraph graph, int node, int[] communities, int[] sizes, double[] totals,
+	                              Accumulator accumulator) {
+		int end = graph.offsets[node + 1];
+		for (int i = graph.offsets[node]; i < end; i++)
+			accumulator.add(communities[graph.targets[i]], graph.weights[i]);
+
+		int    ownCommunity = communities[node];
+		double strength     = graph.strengths[node];
+		double factor       = resolution * strength / graph.totalStrength;
+
+		int    bestCommunity = ownCommunity;
+		double bestGain      = accumulator.get(ownCommunity) - (totals[ownCommunity] - strength) * factor;
+		for (int i = 0; i < accumulator.numTouched; i++) {
+			int community = accumulator.touched[i];
+			if (community == ownCommunity)
+				continue;
+			if (sizes[ownCommunity] == 1 && sizes[community] == 1 && community > ownCommunity)
+				continue;
+
+			double gain = accumulator.get(community) - totals[community] * factor;
+			if (gain > bestGain || gain == bestGain && bestCommunity != ownCommunity && community < bestCommunity) {
+				bestGain = gain;
+				bestCommunity = community;
+			}
+		}
+
+		accumulator.clear();
+		return bestCommunity;
+	}
+
+	private double modularity(LevelGraph graph, int[] communities, double[] totals) {
+		double internal = IntStream.range(0, graph.size).parallel().mapToDouble(node -> {
+			double sum = 2 * graph.selfLoops[node];
+			int    end = graph.offsets[node + 1];
+			for (int i = graph.offsets[node]; i < end; i++)
+				if (communities[graph.targets[i]] == communities[node])
+					sum += graph.weights[i];
+
+			return sum;
+		}).sum();
+
+		double squaredTotals = 0;
+		for (double total : totals)
+			squaredTotals += total * total;
+
+		double totalStrength = graph.totalStrength;
+		return internal / totalStrength - resolution * squaredTotals / (totalStrength * totalStrength);
+	}
+
+	private static double[] communityTotals(LevelGraph graph, int[] communities) {
+		double[] totals = new double[graph.size];
+		for (int node = 0; node < graph.size; node++)
+			totals[communities[node]] += graph.strengths[node];
+
+		return totals;
+	}
+
+	private static int[] communitySizes(int[] communities) {
+		int[] sizes = new int[communities.length];
+		for (int community : communities)
+			sizes[community]++;
+
+		return sizes;
+	}
+
+	/**
+	 * Renumbers communities to 0, 1, ..., in order of first appearance.
+	 *
+	 * @return The number of communities.
+	 */
+	private static int renumber(int[] communities) {
+		int[] newIDs = new int[communities.length];
+		Arrays.fill(newIDs, -1);
+
+		int numCommunities = 0;
+		for (int node = 0; node < communities.length; node++) {
+			int community = communities[node];
+			if (newIDs[community] < 0)
+				newIDs[community] = numCommunities++;
+
+			communities[node] = newIDs[community];
+		}
+
+		return numCommunities;
+	}
+
+	/**
+	 * Sparse accumulator of connection weight per community. Weights are always positive, so zero means untouched.
+	 */
+	private static final class Accumulator {
+		final double[] weights;
+		final int[]    touched;
+		int numTouched = 0;
+
+		Accumulator(int size) {
+			weights = new double[size];
+			touched = new int[size];
+		}
+
+		void add(int community, double weight) {
+			if (weights[community] == 0)
+				touched[numTouched++] = community;
+
+			weights[community] += weight;
+		}
+
+		double get(int community) { return weights[community]; }
+
+		void clear() {
+			for (int i = 0; i < numTouched; i++)
+				weights[touched[i]] = 0;
+
+			numTouched = 0;
+		}
+	}
+
+	/**
+	 * Weighted graph in compressed sparse row format, where nodes can have a self-loop. Self-loops hold the weight of
+	 * all connections inside the community the node represents.
+	 */
+	private static final class LevelGraph {
+		final int      size;
+		final int[]    offsets;
+		final int[]    targets;
+		final double[] weights;
+		final double[] selfLoops;
+		final double[] strengths;
+		final double   totalStrength;
+
+		LevelGraph(SparseGraph graph) {
+			size = graph.size();
+			offsets = new int[size + 1];
+			for (int node = 0; node < size; node++)
+				offsets[node + 1] = offsets[node] + graph.numNeighbors(node);
+
+			targets = new int[offsets[size]];
+			weights = new double[offsets[size]];
+			selfLoops = new double[size];
+			Arrays.fill(weights, 1);
+			IntStream.range(0, size).parallel().forEach(node -> {
+				int numNeighbors = graph.numNeighbors(node);
+				for (int i = 0; i < numNeighbors; i++)
+					targets[offsets[node] + i] = graph.getNeighbor(node, i);
+			});
+
+			strengths = new double[size];
+			totalStrength = calculateStrengths();
+		}
+
+		private LevelGraph(int[] offsets, int[] targets, double[] weights, double[] selfLoops) {
+			size = selfLoops.length;
+			this.offsets = offsets;
+			this.targets = targets;
+			this.weights = weights;
+			this.selfLoops = selfLoops;
+
+			strengths = new double[size];
+			totalStrength = calculateStrengths();
+		}
+
+		private double calculateStrengths() {
+			double total = 0;
+			for (int node = 0; node < size; node++) {
+				double strength = 2 * selfLoops[node];
+				for (int i = offsets[node]; i < offsets[node + 1]; i++)
+					strength += weights[i];
+
+				strengths[node] = strength;
+				total += strength;
+			}
+
+			return total;
+		}
+
+		LevelGraph aggregate(int[] communities, int numCommunities) {
+			int[] memberOffsets = new int[numCommunities + 1];
+			for (int community : communities)
+				memberOffsets[community + 1]++;
+			for (int community = 0; community < numCommunities; community++)
+				memberOffsets[community + 1] += memberOffsets[community];
+
+			int[] members   = new int[size];
+			int[] positions = Arrays.copyOf(memberOffsets, numCommunities);
+			for (int node = 0; node < size; node++)
+				members[positions[communities[node]]++] = node;
+
+			double[]   newSelfLoops = new double[numCommunities];
+			int[][]    rowTargets   = new int[numCommunities][];
+			double[][] rowWeights   = new double[numCommunities][];
+
+			ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(() -> new Accumulator(numCommunities));
+			IntStream.range(0, numCommunities).parallel().forEach(community -> {
+				Accumulator accumulator = accumulators.get();
+
+				double selfLoop = 0;
+				for (int m = memberOffsets[community]; m < memberOffsets[community + 1]; m++) {
+					int node = members[m];
+					selfLoop += selfLoops[node];
+					for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+						int neighborCommunity = communities[targets[i]];
+						if (neighborCommunity == community)
+							selfLoop += weights[i] / 2; // Seen from both ends.
+						else
+							accumulator.add(neighborCommunity, weights[i]);
+					}
+				}
+
+				int[] row = Arrays.copyOf(accumulator.touched, accumulator.numTouched);
+				Arrays.sort(row);
+				double[] rowWeight = new double[row.length];
+				for (int i = 0; i < row.length; i++)
+					rowWeight[i] = accumulator.get(row[i]);
+
+				accumulator.clear();
+				newSelfLoops[community] = selfLoop;
+				rowTargets[community] = row;
+				rowWeights[community] = rowWeight;
+			});
+
+			int[] newOffsets = new int[numCommunities + 1];
+			for (int community = 0; community < numCommunities; community++)
+				newOffsets[community + 1] = newOffsets[community] + rowTargets[community].length;
+
+			int[]    newTargets = new int[newOffsets[numCommunities]];
+			double[] newWeights = new double[newOffsets[numCommunities]];
+			for (int community = 0; community < numCommunities; community++) {
+				System.arraycopy(rowTargets[community], 0, newTargets, newOffsets[community],
+				                 rowTargets[community].length);
+				System.arraycopy(rowWeights[community], 0, newWeights, newOffsets[community],
+				                 rowWeights[community].length);
+			}
+
+			return new LevelGraph(newOffsets, newTargets, newWeights, newSelfLoops);
+		}
+	}
+
+	public static final class Communities {
+		private final int[]  communities;
+		private final int    numCommunities;
+		private final double modularity;
+		private final int    numLevels;
+
+		Communities(int[] communities, int numCommunities, double modularity, int numLevels) {
+			this.communities = communities;
+			this.numCommunities = numCommunities;
+			this.modularity = modularity;
+			this.numLevels = numLevels;
+		}
+
+		public int[] getCommunities()  { return communities; }
+
+		public int getNumCommunities() { return numCommunities; }
+
+		public double getModularity()  { return modularity; }
+
+		public int getNumLevels()      { return numLevels; }
+	}
+}
@@ -28,13 +28,13 @@ package org.digitalmodular.graphanalyzer.statistic;
 
 import static java.util.Objects.requireNonNull;
 
-import org.digitalmodular.graphapi.NeighborGraph;
+import org.digitalmodular.graphapi.SparseGraph;
 
 /**
  * @author Mark Jeronimus
  */
 // Created 2018-02-04
-public final class NodeDegreeCalculator implements LocalGraphStatisticCalculator<NeighborGraph> {
+public final class NodeDegreeCalculator implements FusableStatisticCalculator {
 	public static final NodeDegreeCalculator INSTANCE = new NodeDegreeCalculator();
 
 	private NodeDegreeCalculator() {
@@ -49,7 +49,7 @@ public final class NodeDegreeCalculator implements LocalGraphStatisticCalculator
 	public String getAbbreviation() { return "ND"; }
 
 	@Override
-	public double[] calculateAll(NeighborGraph graph) {
+	public double[] calculateAll(SparseGraph graph) {
 		requireNonNull(graph);
 
 		int      size         = graph.size();
@@ -59,4 +59,11 @@ public final class NodeDegreeCalculator implements LocalGraphStatisticCalculator
 
 		return numNeighbors;
 	}
+
+	@Override
+	public NodeCalculator newNodeCalculator(SparseGraph graph) {
+		requireNonNull(graph);
+
+		return (node, search) -> graph.numNeighbors(node);
+	}
 }
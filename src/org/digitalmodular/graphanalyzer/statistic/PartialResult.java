@@ -0,0 +1,75 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import static java.util.Objects.requireNonNull;
+
+import static org.digitalmodular.graphapi.GraphUtilities.networkAverage;
+
+/**
+ * The result of a calculation under a {@link CalculationControl}, which may have stopped before it was complete.
+ * <p>
+ * What the values of an incomplete result are depends on the calculator. Per-node statistics leave the nodes that
+ * weren't calculated at {@link Double#NaN}, while sampling statistics like betweenness give an estimate from the
+ * samples taken so far.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class PartialResult {
+	private final double[] values;
+	private final int      numDone;
+	private final int      numTotal;
+
+	public PartialResult(double[] values, int numDone, int numTotal) {
+		requireNonNull(values, "values");
+		if (numDone < 0 || numDone > numTotal)
+			throw new IllegalArgumentException("'numDone' should be in the range [0, " + numTotal + "]: " + numDone);
+
+		this.values = values;
+		this.numDone = numDone;
+		this.numTotal = numTotal;
+	}
+
+	public double[] getValues()  { return values; }
+
+	/**
+	 * @return The number of units of work (usually nodes) that were done.
+	 */
+	public int getNumDone()      { return numDone; }
+
+	public int getNumTotal()     { return numTotal; }
+
+	public boolean isComplete()  { return numDone == numTotal; }
+
+	/**
+	 * @return The average over all nodes, or over the calculated nodes only when incomplete.
+	 */
+	public double getAverage() {
+		return networkAverage(values, !isComplete());
+	}
+}
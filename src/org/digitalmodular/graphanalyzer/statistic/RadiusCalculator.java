@@ -0,0 +1,66 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphanalyzer.statistic.EccentricityBounds.Goal;
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * Calculates the exact radius (the smallest eccentricity of all nodes), stopping as soon as the bounds meet. Returns
+ * {@link Double#NaN} if the graph is disconnected.
+ *
+ * @author Mark Jeronimus
+ * @see EccentricityBounds
+ */
+// Created 2026-10-19
+public final class RadiusCalculator implements GlobalGraphStatisticCalculator<SparseGraph> {
+	public static final RadiusCalculator INSTANCE = new RadiusCalculator();
+
+	private RadiusCalculator() {
+		if (INSTANCE != null)
+			throw new AssertionError();
+	}
+
+	@Override
+	public String getName() { return "Radius"; }
+
+	@Override
+	public String getAbbreviation() { return "R"; }
+
+	@Override
+	public double calculate(SparseGraph graph) {
+		requireNonNull(graph);
+
+		EccentricityBounds bounds = new EccentricityBounds(graph);
+		if (!bounds.calculate(Goal.RADIUS))
+			return Double.NaN;
+
+		return bounds.getRadius();
+	}
+}
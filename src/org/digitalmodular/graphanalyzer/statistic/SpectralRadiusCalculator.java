@@ -0,0 +1,92 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.SparseGraph;
+
+/**
+ * The spectral radius is the largest eigenvalue of the adjacency matrix. It lies between the average and the maximum
+ * degree, and bounds how fast things spread through the graph. Calculated with {@link LanczosSolver} on a parallel
+ * sparse product with the neighbor arrays.
+ * <p>
+ * When the solver doesn't converge within its iteration limit, {@link #calculate(SparseGraph)} returns
+ * {@link Double#NaN} instead of an approximation.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class SpectralRadiusCalculator implements GlobalGraphStatisticCalculator<SparseGraph> {
+	public static final SpectralRadiusCalculator INSTANCE = new SpectralRadiusCalculator();
+
+	private SpectralRadiusCalculator() {
+		if (INSTANCE != null)
+			throw new AssertionError();
+	}
+
+	@Override
+	public String getName() { return "Spectral Radius"; }
+
+	@Override
+	public String getAbbreviation() { return "SR"; }
+
+	@Override
+	public int getResultVersion() { return 2; }
+
+	@Override
+	public double calculate(SparseGraph graph) {
+		Eigenvalues eigenvalues = calculateLargestEigenvalues(graph, 1);
+		return eigenvalues.size() > 0 && eigenvalues.isConverged() ? eigenvalues.getValues()[0] : Double.NaN;
+	}
+
+	/**
+	 * @return Up to {@code count} distinct largest adjacency eigenvalues, in descending order. Check
+	 * {@link Eigenvalues#isConverged()} before using them as exact values.
+	 */
+	public static Eigenvalues calculateLargestEigenvalues(SparseGraph graph, int count) {
+		requireNonNull(graph);
+		if (count < 1)
+			throw new IllegalArgumentException("'count' should be at least 1: " + count);
+
+		int size      = graph.size();
+		int maxDegree = IntStream.range(0, size).map(graph::numNeighbors).max().orElse(0);
+
+		LanczosSolver solver = new LanczosSolver(size, (in, out) -> IntStream.range(0, size).parallel().forEach(node -> {
+			double sum          = 0;
+			int    numNeighbors = graph.numNeighbors(node);
+			for (int i = 0; i < numNeighbors; i++)
+				sum += in[graph.getNeighbor(node, i)];
+
+			out[node] = sum;
+		}), maxDegree);
+
+		solver.solve(count, true);
+		return Eigenvalues.of(solver);
+	}
+}
@@ -27,15 +27,17 @@
 package org.digitalmodular.graphanalyzer.statistic;
 
 import java.util.Arrays;
+import java.util.stream.IntStream;
 import static java.util.Objects.requireNonNull;
 
-import org.digitalmodular.graphapi.NeighborGraph;
+import org.digitalmodular.graphapi.BreadthFirstSearch;
+import org.digitalmodular.graphapi.SparseGraph;
 
 /**
  * @author Mark Jeronimus
  */
 // Created 2018-02-04
-public class SpreadingSpeedCalculator implements LocalGraphStatisticCalculator<NeighborGraph> {
+public class SpreadingSpeedCalculator implements FusableStatisticCalculator {
 	/** The amount that the seed node gets before iterating. */
 	private final double seedValue;
 	/** The weight factor for the amount that gets transferred during one iteration. */
@@ -75,37 +77,97 @@ public class SpreadingSpeedCalculator implements LocalGraphStatisticCalculator<N
 	public String getAbbreviation() { return "SS"; }
 
 	@Override
-	public double[] calculateAll(NeighborGraph graph) {
+	public String getParameters() {
+		return "seedValue=" + seedValue +
+		       ",transferProbability=" + transferProbability +
+		       ",targetValue=" + targetValue +
+		       ",finishFactor=" + finishFactor;
+	}
+
+	@Override
+	public double[] calculateAll(SparseGraph graph) {
 		requireNonNull(graph);
 
 		int size = graph.size();
 
+		ThreadLocal<SpreadingState> states = ThreadLocal.withInitial(() -> new SpreadingState(size));
+
 		double[] spreadingTime = new double[size];
-		for (int node = 0; node < size; node++)
-			spreadingTime[node] = calculate(graph, node);
+		IntStream.range(0, size)
+		         .parallel()
+		         .forEach(node -> spreadingTime[node] = calculate(graph, node, states.get()));
 
 		return spreadingTime;
 	}
 
-	public double calculate(NeighborGraph graph, int node) {
-		int size = graph.size();
+	public double calculate(SparseGraph graph, int node) {
+		return calculate(graph, node, new SpreadingState(graph.size()));
+	}
+
+	/**
+	 * When both the seed value and the transfer probability are 1, every transfer saturates the receiver, and the
+	 * spreading reduces to a breadth-first search.
+	 */
+	@Override
+	public boolean needsBreadthFirstSearch() {
+		return seedValue == 1 && transferProbability == 1;
+	}
+
+	@Override
+	public NodeCalculator newNodeCalculator(SparseGraph graph) {
+		requireNonNull(graph);
+
+		if (needsBreadthFirstSearch())
+			return (node, search) -> calculate(graph.size(), search);
+
+		SpreadingState state = new SpreadingState(graph.size());
+		return (node, search) -> calculate(graph, node, state);
+	}
+
+	/**
+	 * Each step, the message reaches exactly the nodes of the next distance level.
+	 */
+	private double calculate(int size, BreadthFirstSearch search) {
+		int remaining = (int)StrictMath.ceil(finishFactor * size);
 
-		double[]  valuesOfLastIteration  = new double[size];
-		double[]  values                 = new double[size];
-		boolean[] sendersOfLastIteration = new boolean[size];
-		boolean[] senders                = new boolean[size];
-		boolean[] receivers              = new boolean[size];
-		boolean[] hasMessage             = new boolean[size];
+		int numLevels = search.getNumLevels();
+		for (int step = 0; step < numLevels; step++) {
+			remaining -= search.getLevelSize(step);
+			if (remaining <= 0)
+				return step;
+		}
+
+		return Double.NaN;
+	}
 
-		Arrays.fill(receivers, true);
+	/**
+	 * Only the senders are visited each step, in ascending node order, so values accumulate in exactly the same order
+	 * as when scanning all nodes. Senders without any receiving neighbor can never send again and are dropped.
+	 */
+	private double calculate(SparseGraph graph, int node, SpreadingState state) {
+		int size       = graph.size();
+		int generation = state.nextGeneration();
+
+		double[] values      = state.values;
+		int[]    reached     = state.reached;
+		int[]    saturated   = state.saturated;
+		int[]    hasMessage  = state.hasMessage;
+		double[] sendAmounts = state.sendAmounts;
+		int[]    senders     = state.senders;
+		int[]    newSenders  = state.newSenders;
 
 		values[node] = seedValue;
-		senders[node] = true;
-		receivers[node] = seedValue < 1;
-		hasMessage[node] = seedValue >= targetValue;
+		reached[node] = generation;
+		if (seedValue >= 1)
+			saturated[node] = generation;
+		if (seedValue >= targetValue)
+			hasMessage[node] = generation;
+
+		senders[0] = node;
+		int numSenders = 1;
 
 		int remaining = (int)StrictMath.ceil(finishFactor * size);
-		if (hasMessage[node])
+		if (hasMessage[node] == generation)
 			remaining--;
 
 		if (remaining == 0)
@@ -113,37 +175,49 @@ public class SpreadingSpeedCalculator implements LocalGraphStatisticCalculator<N
 
 		int limit = size * (size - 1) / 2;
 		for (int step = 1; step < limit; step++) {
-			System.arraycopy(values, 0, valuesOfLastIteration, 0, size);
-			System.arraycopy(senders, 0, sendersOfLastIteration, 0, size);
+			for (int i = 0; i < numSenders; i++)
+				sendAmounts[i] = transferProbability * values[senders[i]];
 
-			boolean changed = false;
+			boolean changed       = false;
+			int     numActive     = 0;
+			int     numNewSenders = 0;
 
-			// Find nodes that send.
-			for (int sendingNode = 0; sendingNode < size; sendingNode++) {
-				if (!sendersOfLastIteration[sendingNode])
-					continue;
+			for (int i = 0; i < numSenders; i++) {
+				int     sendingNode = senders[i];
+				double  sendAmount  = sendAmounts[i];
+				boolean active      = false;
 
 				int numNeighbors = graph.numNeighbors(sendingNode);
 				for (int neighbor = 0; neighbor < numNeighbors; neighbor++) {
 					int receivingNode = graph.getNeighbor(sendingNode, neighbor);
-					if (!receivers[receivingNode])
+					if (saturated[receivingNode] == generation)
 						continue;
 
-					values[receivingNode] += transferProbability * valuesOfLastIteration[sendingNode];
-					senders[receivingNode] = true;
+					if (reached[receivingNode] != generation) {
+						reached[receivingNode] = generation;
+						values[receivingNode] = 0;
+						newSenders[numNewSenders++] = receivingNode;
+					}
+
+					values[receivingNode] += sendAmount;
 
-					if (values[receivingNode] >= targetValue && !hasMessage[receivingNode]) {
+					if (values[receivingNode] >= targetValue && hasMessage[receivingNode] != generation) {
 						remaining--;
-						hasMessage[receivingNode] = true;
+						hasMessage[receivingNode] = generation;
 					}
 
 					if (values[receivingNode] >= 1) {
 						values[receivingNode] = 1;
-						receivers[receivingNode] = false;
+						saturated[receivingNode] = generation;
 					}
 
-					changed = true;
+					active = true;
 				}
+
+				if (active)
+					senders[numActive++] = sendingNode;
+
+				changed |= active;
 			}
 
 			if (remaining <= 0)
@@ -151,8 +225,75 @@ public class SpreadingSpeedCalculator implements LocalGraphStatisticCalculator<N
 
 			if (!changed)
 				return Double.NaN;
+
+			numSenders = state.mergeSenders(numActive, numNewSenders);
+			senders = state.senders;
+			newSenders = state.newSenders;
 		}
 
 		throw new AssertionError("Iteration overflow");
 	}
+
+	/**
+	 * Per-thread scratch space, reused across seed nodes. Nodes are only considered part of the current run when their
+	 * stamp equals the current generation, so nothing needs to be cleared between runs.
+	 */
+	private static final class SpreadingState {
+		final double[] values;
+		final int[]    reached;
+		final int[]    saturated;
+		final int[]    hasMessage;
+		final double[] sendAmounts;
+
+		int[] senders;
+		int[] newSenders;
+		int[] mergeBuffer;
+
+		private int generation = 0;
+
+		SpreadingState(int size) {
+			values = new double[size];
+			reached = new int[size];
+			saturated = new int[size];
+			hasMessage = new int[size];
+			sendAmounts = new double[size];
+			senders = new int[size];
+			newSenders = new int[size];
+			mergeBuffer = new int[size];
+		}
+
+		int nextGeneration() {
+			generation++;
+			if (generation == 0) {
+				Arrays.fill(reached, 0);
+				Arrays.fill(saturated, 0);
+				Arrays.fill(hasMessage, 0);
+				generation = 1;
+			}
+
+			return generation;
+		}
+
+		/**
+		 * Merges the (sorted) surviving senders with the (unsorted) newly reached nodes into a new sorted sender list.
+		 */
+		int mergeSenders(int numActive, int numNewSenders) {
+			Arrays.sort(newSenders, 0, numNewSenders);
+
+			int[] merged = mergeBuffer;
+			int   i      = 0;
+			int   j      = 0;
+			int   k      = 0;
+			while (i < numActive && j < numNewSenders)
+				merged[k++] = senders[i] < newSenders[j] ? senders[i++] : newSenders[j++];
+			while (i < numActive)
+				merged[k++] = senders[i++];
+			while (j < numNewSenders)
+				merged[k++] = newSenders[j++];
+
+			mergeBuffer = senders;
+			senders = merged;
+			return k;
+		}
+	}
 }
@@ -28,7 +28,7 @@ package org.digitalmodular.graphanalyzer.statistic;
 
 import static java.util.Objects.requireNonNull;
 
-import org.digitalmodular.graphapi.NeighborGraph;
+import org.digitalmodular.graphapi.SparseGraph;
 
 /**
  * Watts, D. J. & Strogatz, S. H. (1998), ‘Collective dynamics of ‘small-world’ networks’, Nature 393(1), 440–442
@@ -37,7 +37,7 @@ import org.digitalmodular.graphapi.NeighborGraph;
  */
 // Created 2018-02-04
 public final class WattsStrogatzClusteringCoefficientCalculator
-		implements LocalGraphStatisticCalculator<NeighborGraph> {
+		implements FusableStatisticCalculator {
 	public static final WattsStrogatzClusteringCoefficientCalculator INSTANCE =
 			new WattsStrogatzClusteringCoefficientCalculator();
 
@@ -53,7 +53,7 @@ public final class WattsStrogatzClusteringCoefficientCalculator
 	public String getAbbreviation() { return "CC"; }
 
 	@Override
-	public double[] calculateAll(NeighborGraph graph) {
+	public double[] calculateAll(SparseGraph graph) {
 		requireNonNull(graph);
 
 		int size = graph.size();
@@ -65,7 +65,14 @@ public final class WattsStrogatzClusteringCoefficientCalculator
 		return clusteringCoefficients;
 	}
 
-	public static double calculate(NeighborGraph graph, int node) {
+	@Override
+	public NodeCalculator newNodeCalculator(SparseGraph graph) {
+		requireNonNull(graph);
+
+		return (node, search) -> calculate(graph, node);
+	}
+
+	public static double calculate(SparseGraph graph, int node) {
 		int numNeighbors = graph.numNeighbors(node);
 		if (numNeighbors < 2)
 			return 0;
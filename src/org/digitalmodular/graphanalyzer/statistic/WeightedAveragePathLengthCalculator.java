@@ -0,0 +1,80 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.DijkstraSearch;
+import org.digitalmodular.graphapi.WeightedGraph;
+
+/**
+ * The average shortest path length from each node to all others, where the length of a connection is the reciprocal
+ * of its weight (see {@link DijkstraSearch}). Like {@link AveragePathLengthCalculator}, all values are NaN when the
+ * graph is disconnected.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class WeightedAveragePathLengthCalculator implements LocalGraphStatisticCalculator<WeightedGraph> {
+	public static final WeightedAveragePathLengthCalculator INSTANCE = new WeightedAveragePathLengthCalculator();
+
+	private WeightedAveragePathLengthCalculator() {
+		if (INSTANCE != null)
+			throw new AssertionError();
+	}
+
+	@Override
+	public String getName() { return "Weighted Average Path Length"; }
+
+	@Override
+	public String getAbbreviation() { return "WAPL"; }
+
+	@Override
+	public double[] calculateAll(WeightedGraph graph) {
+		requireNonNull(graph);
+
+		int size = graph.size();
+
+		ThreadLocal<DijkstraSearch> searches = ThreadLocal.withInitial(() -> new DijkstraSearch(size));
+		double[] averages = IntStream.range(0, size).parallel().mapToDouble(node -> {
+			DijkstraSearch search = searches.get();
+			search.search(graph, node);
+			return search.getNumReached() == size ? search.getDistanceSum() / (size - 1) : Double.NaN;
+		}).toArray();
+
+		for (double value : averages) {
+			if (Double.isNaN(value)) {
+				Arrays.fill(averages, Double.NaN);
+				break;
+			}
+		}
+
+		return averages;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer.statistic;
+
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.WeightedGraph;
+
+/**
+ * Barrat, A., Barthélemy, M., Pastor-Satorras, R., Vespignani, A. (2004), ‘The architecture of complex weighted
+ * networks’, Proceedings of the National Academy of Sciences 101(11), 3747–3752.
+ * <p>
+ * Every triangle around a node counts with the average weight of its two connections to the node, normalized by the
+ * strength of the node. Equals the Watts-Strogatz clustering coefficient when all weights are equal.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class WeightedClusteringCoefficientCalculator implements LocalGraphStatisticCalculator<WeightedGraph> {
+	public static final WeightedClusteringCoefficientCalculator INSTANCE =
+			new WeightedClusteringCoefficientCalculator();
+
+	private WeightedClusteringCoefficientCalculator() {
+		if (INSTANCE != null)
+			throw new AssertionError();
+	}
+
+	@Override
+	public String getName() { return "Weighted Clustering Coefficient"; }
+
+	@Override
+	public String getAbbreviation() { return "WCC"; }
+
+	@Override
+	public double[] calculateAll(WeightedGraph graph) {
+		requireNonNull(graph);
+
+		return IntStream.range(0, graph.size())
+		                .parallel()
+		                .mapToDouble(node -> calculate(graph, node))
+		                .toArray();
+	}
+
+	public static double calculate(WeightedGraph graph, int node) {
+		int numNeighbors = graph.numNeighbors(node);
+		if (numNeighbors < 2)
+			return 0;
+
+		long sum = 0;
+		for (int y = 0; y < numNeighbors; y++) {
+			int neighbor1 = graph.getNeighbor(node, y);
+			int weight1   = graph.getWeight(node, y);
+			for (int x = 0; x < y; x++) {
+				int neighbor2 = graph.getNeighbor(node, x);
+				if (graph.isConnected(neighbor1, neighbor2))
+					sum += weight1 + graph.getWeight(node, x);
+			}
+		}
+
+		return sum / ((double)graph.getStrength(node) * (numNeighbors - 1));
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of GraphAPI.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphapi;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reusable breadth-first search over a {@link SparseGraph}. After {@link #search(SparseGraph, int)} the distances
+ * and the number of nodes per distance level are available until the next search.
+ * <p>
+ * Not Thread-safe. Create one instance per thread and reuse it for all searches on graphs of the same size; nodes are
+ * marked with a generation stamp so nothing needs to be cleared between searches.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class BreadthFirstSearch {
+	private final int[] visited;
+	private final int[] distances;
+	private final int[] queue;
+	private final int[] levelSizes;
+
+	private int generation = 0;
+	private int numReached = 0;
+	private int numLevels  = 0;
+
+	public BreadthFirstSearch(int size) {
+		visited = new int[size];
+		distances = new int[size];
+		queue = new int[size];
+		levelSizes = new int[size];
+	}
+
+	public int size() { return visited.length; }
+
+	public void search(SparseGraph graph, int source) {
+		requireNonNull(graph);
+		if (graph.size() != visited.length)
+			throw new IllegalArgumentException("Network sizes differ: " + visited.length + " vs " + graph.size());
+
+		nextGeneration();
+
+		visited[source] = generation;
+		distances[source] = 0;
+		queue[0] = source;
+		levelSizes[0] = 1;
+		numLevels = 1;
+
+		int head = 0;
+		int tail = 1;
+		while (head < tail) {
+			int node     = queue[head++];
+			int distance = distances[node] + 1;
+
+			int numNeighbors = graph.numNeighbors(node);
+			for (int i = 0; i < numNeighbors; i++) {
+				int neighbor = graph.getNeighbor(node, i);
+				if (visited[neighbor] == generation)
+					continue;
+
+				visited[neighbor] = generation;
+				distances[neighbor] = distance;
+				queue[tail++] = neighbor;
+
+				if (distance == numLevels) {
+					levelSizes[distance] = 0;
+					numLevels++;
+				}
+				levelSizes[distance]++;
+			}
+		}
+
+		numReached = tail;
+	}
+
+	/** The number of nodes reached by the last search, including the source. */
+	public int getNumReached() { return numReached; }
+
+	/** The number of distance levels of the last search, i.e. the eccentricity of the source plus one. */
+	public int getNumLevels() { return numLevels; }
+
+	/** The number of nodes at exactly {@code distance} from the source. */
+	public int getLevelSize(int distance) {
+		return distance < numLevels ? levelSizes[distance] : 0;
+	}
+
+	/** The distance of {@code node} from the source, or -1 if it was not reached. */
+	public int getDistance(int node) {
+		return visited[node] == generation ? distances[node] : -1;
+	}
+
+	/**
+	 * The nodes in the order they were visited, i.e. sorted by non-decreasing distance. Only the first
+	 * {@link #getNumReached()} elements are valid. The array is owned by this search and overwritten by the next one.
+	 */
+	public int[] getVisitOrder() { return queue; }
+
+	/** The sum of the distances of all reached nodes. */
+	public long getDistanceSum() {
+		long sum = 0;
+		for (int distance = 1; distance < numLevels; distance++)
+			sum += (long)distance * levelSizes[distance];
+
+		return sum;
+	}
+
+	private void nextGeneration() {
+		generation++;
+		if (generation == 0) {
+			Arrays.fill(visited, 0);
+			generation = 1;
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * This file is part of GraphAPI.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphapi;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable undirected unweighted graph without self-loops, stored as sorted neighbor lists packed into a single
+ * array (compressed sparse row). Takes {@code 4 * (size + 2 * connections)} bytes, instead of the quadratic memory of
+ * {@link MatrixGraph} and {@link NeighborGraph}, which makes it suitable for generating large numbers of graphs.
+ * <p>
+ * Use {@link Builder} to construct one.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class CompactGraph implements SparseGraph {
+	private static final long serialVersionUID = 4135729811650416376L;
+
+	/** Neighbors of node {@code i} are at {@code neighbors[offsets[i]]} to {@code neighbors[offsets[i + 1] - 1]}. */
+	private final int[] offsets;
+	private final int[] neighbors;
+
+	private CompactGraph(int[] offsets, int[] neighbors) {
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+	}
+
+	public CompactGraph(Graph other) {
+		requireNonNull(other);
+
+		Builder builder = new Builder(other.size());
+
+		ConnectionIterator iterator   = other.iterator();
+		int[]              connection = new int[2];
+		while (iterator.hasNext()) {
+			iterator.next(connection);
+			builder.addConnection(connection[0], connection[1]);
+		}
+
+		CompactGraph graph = builder.build();
+		offsets = graph.offsets;
+		neighbors = graph.neighbors;
+	}
+
+	@Override
+	public int size() {
+		return offsets.length - 1;
+	}
+
+	public int numConnections() {
+		return neighbors.length / 2;
+	}
+
+	@Override
+	public int numNeighbors(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	@Override
+	public int getNeighbor(int node, int index) {
+		return neighbors[offsets[node] + index];
+	}
+
+	@Override
+	public boolean isConnected(int x, int y) {
+		return Arrays.binarySearch(neighbors, offsets[y], offsets[y + 1], x) >= 0;
+	}
+
+	@Override
+	public void setConnection(int x, int y) {
+		throw new UnsupportedOperationException("CompactGraph is immutable");
+	}
+
+	@Override
+	public void removeConnection(int x, int y) {
+		throw new UnsupportedOperationException("CompactGraph is immutable");
+	}
+
+	@Override
+	public void setGraph(Graph other) {
+		throw new UnsupportedOperationException("CompactGraph is immutable");
+	}
+
+	/**
+	 * Walks the neighbor lists instead of probing every pair of nodes. Connections are returned with the lower index
+	 * first, ordered by the lower index.
+	 */
+	@Override
+	public ConnectionIterator iterator() {
+		//noinspection AnonymousInnerClassWithTooManyMethods,OverlyComplexAnonymousInnerClass
+		return new ConnectionIterator() {
+			private int node  = 0;
+			private int index = -1;
+
+			{
+				findNext();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return index < neighbors.length;
+			}
+
+			@Override
+			public int[] next() {
+				int[] connection = new int[2];
+				next(connection);
+				return connection;
+			}
+
+			@Override
+			public void next(int[] connection) {
+				if (!hasNext())
+					throw new NoSuchElementException("");
+
+				connection[0] = node;
+				connection[1] = neighbors[index];
+				findNext();
+			}
+
+			private void findNext() {
+				while (++index < neighbors.length) {
+					while (index >= offsets[node + 1])
+						node++;
+
+					if (neighbors[index] > node)
+						break;
+				}
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		int           size = size();
+		StringBuilder sb   = new StringBuilder(size * 4 + neighbors.length * 5);
+
+		for (int node = 0; node < size; node++) {
+			if (node > 0)
+				sb.append('\n');
+
+			sb.append(node).append(' ');
+			for (int i = offsets[node]; i < offsets[node + 1]; i++)
+				sb.append(' ').append(neighbors[i]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Collects connections in any order and packs them into a {@link CompactGraph}. Self-loops and duplicate
+	 * connections are dropped, so generators don't need to check for them.
+	 * <p>
+	 * Not Thread-safe.
+	 */
+	public static final class Builder {
+		private final int size;
+
+		private int[] endpoints      = new int[64];
+		private int   numConnections = 0;
+
+		public Builder(int size) {
+			if (size < 1)
+				throw new IllegalArgumentException("size should be at least 1: " + size);
+
+			this.size = size;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public void addConnection(int x, int y) {
+			if (x < 0 || x >= size || y < 0 || y >= size)
+				throw new IndexOutOfBoundsException("(" + x + ", " + y + "), size = " + size);
+			if (x == y)
+				return;
+
+			if (numConnections * 2 == endpoints.length)
+				endpoints = Arrays.copyOf(endpoints, endpoints.length * 2);
+
+			endpoints[numConnections * 2] = x;
+			endpoints[numConnections * 2 + 1] = y;
+			numConnections++;
+		}
+
+		/**
+		 * Builds the graph in two passes of counting sort. The builder can be reused afterwards.
+		 */
+		public CompactGraph build() {
+			int[] offsets = new int[size + 1];
+			for (int i = 0; i < numConnections * 2; i++)
+				offsets[endpoints[i] + 1]++;
+			for (int node = 0; node < size; node++)
+				offsets[node + 1] += offsets[node];
+
+			int[] positions = Arrays.copyOf(offsets, size);
+			int[] neighbors = new int[numConnections * 2];
+			for (int i = 0; i < numConnections * 2; i += 2) {
+				int x = endpoints[i];
+				int y = endpoints[i + 1];
+				neighbors[positions[x]++] = y;
+				neighbors[positions[y]++] = x;
+			}
+
+			// Sort and deduplicate each neighbor list, compacting the lists in place
+			int end = 0;
+			for (int node = 0; node < size; node++) {
+				int begin = offsets[node];
+				Arrays.sort(neighbors, begin, offsets[node + 1]);
+
+				offsets[node] = end;
+				for (int i = begin; i < offsets[node + 1]; i++)
+					if (i == begin || neighbors[i] != neighbors[i - 1])
+						neighbors[end++] = neighbors[i];
+			}
+			offsets[size] = end;
+
+			return new CompactGraph(offsets, end == neighbors.length ? neighbors : Arrays.copyOf(neighbors, end));
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * This file is part of GraphAPI.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphapi;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reusable single-source shortest path search over a {@link WeightedGraph}, where the length of a connection is the
+ * reciprocal of its weight (so heavier connections are shorter). Dijkstra's algorithm with a binary heap of node
+ * indices and a position index for decrease-key.
+ * <p>
+ * Not Thread-safe. Create one instance per thread and reuse it for all searches on graphs of the same size; nodes are
+ * marked with a generation stamp so nothing needs to be cleared between searches.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class DijkstraSearch {
+	private final int[]    visited;
+	private final double[] distances;
+	private final int[]    heap;
+	private final int[]    heapPositions;
+	private final int[]    visitOrder;
+
+	private int generation = 0;
+	private int heapSize   = 0;
+	private int numReached = 0;
+
+	public DijkstraSearch(int size) {
+		visited = new int[size];
+		distances = new double[size];
+		heap = new int[size];
+		heapPositions = new int[size];
+		visitOrder = new int[size];
+	}
+
+	public int size() { return visited.length; }
+
+	public void search(WeightedGraph graph, int source) {
+		requireNonNull(graph);
+		if (graph.size() != visited.length)
+			throw new IllegalArgumentException("Network sizes differ: " + visited.length + " vs " + graph.size());
+
+		nextGeneration();
+
+		// visited == generation: in the heap, visited == -generation: settled
+		visited[source] = generation;
+		distances[source] = 0;
+		heap[0] = source;
+		heapPositions[source] = 0;
+		heapSize = 1;
+		numReached = 0;
+
+		while (heapSize > 0) {
+			int node = heap[0];
+			removeTop();
+			visited[node] = -generation;
+			visitOrder[numReached++] = node;
+
+			double distance     = distances[node];
+			int    numNeighbors = graph.numNeighbors(node);
+			for (int i = 0; i < numNeighbors; i++) {
+				int neighbor = graph.getNeighbor(node, i);
+				if (visited[neighbor] == -generation)
+					continue;
+
+				double newDistance = distance + 1.0 / graph.getWeight(node, i);
+				if (visited[neighbor] != generation) {
+					visited[neighbor] = generation;
+					distances[neighbor] = newDistance;
+					heap[heapSize] = neighbor;
+					heapPositions[neighbor] = heapSize;
+					heapSize++;
+					siftUp(heapSize - 1);
+				} else if (newDistance < distances[neighbor]) {
+					distances[neighbor] = newDistance;
+					siftUp(heapPositions[neighbor]);
+				}
+			}
+		}
+	}
+
+	/** The number of nodes reached by the last search, including the source. */
+	public int getNumReached() { return numReached; }
+
+	/** The distance of {@code node} from the source, or infinity if it was not reached. */
+	public double getDistance(int node) {
+		return visited[node] == -generation ? distances[node] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * The nodes in the order they were settled, i.e. sorted by non-decreasing distance. Only the first
+	 * {@link #getNumReached()} elements are valid. The array is owned by this search and overwritten by the next one.
+	 */
+	public int[] getVisitOrder() { return visitOrder; }
+
+	/** The sum of the distances of all reached nodes. */
+	public double getDistanceSum() {
+		double sum = 0;
+		for (int i = 0; i < numReached; i++)
+			sum += distances[visitOrder[i]];
+
+		return sum;
+	}
+
+	private void removeTop() {
+		heapSize--;
+		if (heapSize == 0)
+			return;
+
+		heap[0] = heap[heapSize];
+		heapPositions[heap[0]] = 0;
+		siftDown(0);
+	}
+
+	private void siftUp(int position) {
+		int    node     = heap[position];
+		double distance = distances[node];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (distances[heap[parent]] <= distance)
+				break;
+
+			heap[position] = heap[parent];
+			heapPositions[heap[position]] = position;
+			position = parent;
+		}
+
+		heap[position] = node;
+		heapPositions[node] = position;
+	}
+
+	private void siftDown(int position) {
+		int    node     = heap[position];
+		double distance = distances[node];
+		while (true) {
+			int child = position * 2 + 1;
+			if (child >= heapSize)
+				break;
+			if (child + 1 < heapSize && distances[heap[child + 1]] < distances[heap[child]])
+				child++;
+			if (distances[heap[child]] >= distance)
+				break;
+
+			heap[position] = heap[child];
+			heapPositions[heap[position]] = position;
+			position = child;
+		}
+
+		heap[position] = node;
+		heapPositions[node] = position;
+	}
+
+	private void nextGeneration() {
+		generation++;
+		if (generation == Integer.MAX_VALUE) {
+			Arrays.fill(visited, 0);
+			generation = 1;
+		}
+	}
+}
@@ -27,15 +27,22 @@
 package org.digitalmodular.graphapi;
 
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import javax.imageio.ImageIO;
 
@@ -46,6 +53,9 @@ import org.digitalmodular.graphapi.Graph.ConnectionIterator;
  */
 // Created 2018-02-12
 public final class GraphIO {
+	private static final int LAYERS_MAGIC   = 0x4C415952; // "LAYR"
+	private static final int LAYERS_VERSION = 1;
+
 	private GraphIO() { throw new AssertionError(); }
 
 	public static Graph read(String filename) throws IOException {
@@ -59,6 +69,8 @@ public final class GraphIO {
 				return readTXT(filename);
 			case "CONN":
 				return readCONN(filename);
+			case "LAYERS":
+				return readLAYERS(filename);
 			default:
 				return readIMG(filename);
 		}
@@ -80,11 +92,24 @@ public final class GraphIO {
 			case "PNG":
 				writePNG(graph, filename);
 				break;
+			case "LAYERS":
+				if (!(graph instanceof LayeredGraph))
+					throw new IllegalArgumentException("Only a LayeredGraph can be written as LAYERS: " + filename);
+
+				writeLAYERS((LayeredGraph)graph, filename);
+				break;
 			default:
 				throw new IllegalArgumentException("Extension not supported: " + filename);
 		}
 	}
 
+	/**
+	 * Reads a layered graph, regardless of the extension.
+	 */
+	public static LayeredGraph readLayered(String filename) throws IOException {
+		return readLAYERS(filename);
+	}
+
 	private static Graph readTXT(String filename) throws IOException {
 		List<String> lines = Files.readAllLines(Paths.get(filename));
 
@@ -214,6 +239,158 @@ public final class GraphIO {
 		}
 	}
 
+	/**
+	 * Binary format, all integers are unsigned LEB128 varints except for the header:
+	 * <pre>
+	 * int    magic "LAYR"
+	 * int    version (1)
+	 * int    numLayers, followed by the layer names as modified UTF-8
+	 * int    size, followed by the ascending labels, each as the difference to the previous one
+	 *        followed by the layer mask of each node
+	 * per node: number of higher neighbors, then for each higher neighbor (ascending):
+	 *        the difference to the previous neighbor (or the node itself), and the layer mask of the connection
+	 * </pre>
+	 */
+	private static LayeredGraph readLAYERS(String filename) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+			if (in.readInt() != LAYERS_MAGIC)
+				throw new IOException("Not a layered graph file: " + filename);
+			int version = in.readInt();
+			if (version != LAYERS_VERSION)
+				throw new IOException("Unsupported version: " + filename + ": " + version);
+
+			int numLayers = in.readInt();
+			if (numLayers < 1 || numLayers > LayeredGraph.MAX_LAYERS)
+				throw new IOException("Invalid number of layers: " + filename + ": " + numLayers);
+
+			String[] layerNames = new String[numLayers];
+			for (int layer = 0; layer < numLayers; layer++)
+				layerNames[layer] = in.readUTF();
+
+			int size = in.readInt();
+			if (size < 0)
+				throw new IOException("Invalid size: " + filename + ": " + size);
+
+			int[] labels = new int[size];
+			for (int node = 0; node < size; node++) {
+				labels[node] = (node == 0 ? 0 : labels[node - 1]) + readVarInt(in);
+				if (node > 0 && labels[node] <= labels[node - 1])
+					throw new IOException("Labels not ascending: " + filename + " @ node " + node);
+			}
+
+			int[] nodeLayers = new int[size];
+			for (int node = 0; node < size; node++)
+				nodeLayers[node] = readVarInt(in);
+
+			// Read the higher neighbors, then mirror them to get the full neighbor lists
+			int[] numHigher = new int[size];
+			int[] degrees   = new int[size + 1];
+			int[] higher    = new int[64];
+			int[] masks     = new int[64];
+			int   count     = 0;
+			for (int node = 0; node < size; node++) {
+				numHigher[node] = readVarInt(in);
+				int neighbor = node;
+				for (int i = 0; i < numHigher[node]; i++) {
+					if (count == higher.length) {
+						higher = Arrays.copyOf(higher, count * 2);
+						masks = Arrays.copyOf(masks, count * 2);
+					}
+
+					neighbor += readVarInt(in);
+					int mask = readVarInt(in);
+					if (neighbor <= node || neighbor >= size)
+						throw new IOException("Invalid connection: " + filename + ": (" + node + ", " + neighbor + ')');
+					if (mask == 0 || (mask & ~(nodeLayers[node] & nodeLayers[neighbor])) != 0)
+						throw new IOException("Connection in a layer without its nodes: " + filename +
+						                      ": (" + node + ", " + neighbor + ')');
+
+					higher[count] = neighbor;
+					masks[count++] = mask;
+					degrees[node + 1]++;
+					degrees[neighbor + 1]++;
+				}
+			}
+
+			int[] offsets = degrees;
+			for (int node = 0; node < size; node++)
+				offsets[node + 1] += offsets[node];
+
+			// Lower neighbors arrive in ascending order before the node's own higher neighbors
+			int[] neighbors        = new int[count * 2];
+			int[] connectionLayers = new int[count * 2];
+			int[] positions        = Arrays.copyOf(offsets, size);
+			int   i                = 0;
+			for (int node = 0; node < size; node++) {
+				for (int end = i + numHigher[node]; i < end; i++) {
+					int neighbor = higher[i];
+					neighbors[positions[node]] = neighbor;
+					connectionLayers[positions[node]++] = masks[i];
+					neighbors[positions[neighbor]] = node;
+					connectionLayers[positions[neighbor]++] = masks[i];
+				}
+			}
+
+			return new LayeredGraph(layerNames, labels, nodeLayers, offsets, neighbors, connectionLayers);
+		}
+	}
+
+	private static void writeLAYERS(LayeredGraph graph, String filename) throws IOException {
+		int size = graph.size();
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+			out.writeInt(LAYERS_MAGIC);
+			out.writeInt(LAYERS_VERSION);
+
+			out.writeInt(graph.numLayers());
+			for (int layer = 0; layer < graph.numLayers(); layer++)
+				out.writeUTF(graph.getLayerName(layer));
+
+			out.writeInt(size);
+			for (int node = 0; node < size; node++)
+				writeVarInt(out, graph.getLabel(node) - (node == 0 ? 0 : graph.getLabel(node - 1)));
+			for (int node = 0; node < size; node++)
+				writeVarInt(out, graph.getNodeLayers(node));
+
+			for (int node = 0; node < size; node++) {
+				int degree = graph.numNeighbors(node);
+				int first  = 0;
+				while (first < degree && graph.getNeighbor(node, first) < node)
+					first++;
+
+				writeVarInt(out, degree - first);
+				int previous = node;
+				for (int i = first; i < degree; i++) {
+					int neighbor = graph.getNeighbor(node, i);
+					writeVarInt(out, neighbor - previous);
+					writeVarInt(out, graph.getConnectionLayers(node, i));
+					previous = neighbor;
+				}
+			}
+		}
+	}
+
+	private static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if (b < 0x80)
+				return value;
+		}
+
+		throw new IOException("Malformed varint");
+	}
+
+	private static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte(value & 0x7F | 0x80);
+			value >>>= 7;
+		}
+
+		out.writeByte(value);
+	}
+
 	private static Graph readIMG(String filename) throws IOException {
 		BufferedImage img  = ImageIO.read(new File(filename));
 		int           size = img.getWidth();
@@ -90,6 +90,36 @@ public final class GraphUtilities {
 		return numLeafNodes;
 	}
 
+	/**
+	 * Calculates a 128-bit hash of the connections, as 32 hexadecimal digits. Equal graphs with the same node order
+	 * have equal hashes, regardless of the graph class or the order in which the connections were added.
+	 * <p>
+	 * The hash of each connection is summed, so the order of visiting doesn't matter. Two sums with independent
+	 * hashes make accidental collisions practically impossible (but this is not a cryptographic hash).
+	 */
+	public static String hashConnections(SparseGraph graph) {
+		int  size           = graph.size();
+		long numConnections = 0;
+		long sum1           = 0;
+		long sum2           = 0;
+		for (int node = 0; node < size; node++) {
+			int numNeighbors = graph.numNeighbors(node);
+			for (int i = 0; i < numNeighbors; i++) {
+				int neighbor = graph.getNeighbor(node, i);
+				if (neighbor > node) {
+					long key = (long)node << 32 | neighbor;
+					sum1 += mix64(key);
+					sum2 += mix64(key ^ 0x9E3779B97F4A7C15L);
+					numConnections++;
+				}
+			}
+		}
+
+		long hash1 = mix64(sum1 + mix64(size));
+		long hash2 = mix64(sum2 + mix64(numConnections));
+		return String.format("%016x%016x", hash1, hash2);
+	}
+
 	public static double networkAverage(double[] values, boolean skipInvalid) {
 		double sum   = 0;
 		int    count = 0;
@@ -106,4 +136,11 @@ public final class GraphUtilities {
 
 		return sum / count;
 	}
+
+	/** SplitMix64 finalizer. */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
 }
@@ -27,12 +27,17 @@
 package org.digitalmodular.graphapi;
 
 import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 import static java.util.Objects.requireNonNull;
 
-import org.digitalmodular.graphapi.Graph.ConnectionIterator;
-
 /**
  * Finds all connected subgraphs within a given graph.
+ * <p>
+ * Small graphs are labeled with a sequential union-find, large graphs with the parallel Afforest algorithm. Both are
+ * linear in the number of connections.
  *
  * @author Mark Jeronimus
  */
@@ -42,7 +47,13 @@ public final class IsolatedSubGraphFinder {
 
 	private static final int[][] EMPTY_INTS_ARRAY = new int[0][];
 
-	public static int[][] findIsolatedSubGraphs(NeighborGraph graph) {
+	/** Graphs with fewer nodes than this are not worth the overhead of the parallel algorithm. */
+	private static final int PARALLEL_THRESHOLD = 4096;
+	/** The number of neighbors per node that Afforest links before sampling the largest component. */
+	private static final int NEIGHBOR_ROUNDS    = 2;
+	private static final int NUM_SAMPLES        = 1024;
+
+	public static int[][] findIsolatedSubGraphs(SparseGraph graph) {
 		requireNonNull(graph);
 
 		int size = graph.size();
@@ -51,48 +62,145 @@ public final class IsolatedSubGraphFinder {
 		if (size == 1)
 			return new int[][]{{0}};
 
-		int[] startingNodes = findSubGraphStartingNodes(graph);
+		int[] startingNodes;
+		if (size >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1)
+			startingNodes = findSubGraphStartingNodesInParallel(graph);
+		else
+			startingNodes = findSubGraphStartingNodes(graph);
 
 		return findSubGraphPermutations(graph, startingNodes);
 	}
 
 	/*
+	 * Union-find with path halving. Roots are always linked to the lower index, so every node ends up labeled with
+	 * the lowest node of its subgraph.
+	 *
 	 * Example Output: [0, 1, 1, 3, 1, 1, 0, 1, 1, 1]
 	 */
-	private static int[] findSubGraphStartingNodes(Graph graph) {
+	static int[] findSubGraphStartingNodes(SparseGraph graph) {
+		int size = graph.size();
+
+		int[] parents = new int[size];
+		for (int i = 0; i < size; i++)
+			parents[i] = i;
+
+		for (int x = 0; x < size; x++) {
+			int numNeighbors = graph.numNeighbors(x);
+			for (int i = 0; i < numNeighbors; i++) {
+				int y = graph.getNeighbor(x, i);
+				if (y < x)
+					continue;
+
+				int rootX = find(parents, x);
+				int rootY = find(parents, y);
+				if (rootX < rootY)
+					parents[rootY] = rootX;
+				else if (rootY < rootX)
+					parents[rootX] = rootY;
+			}
+		}
+
+		// Parents never have a higher index than their children, so one ascending pass flattens all trees.
+		for (int i = 0; i < size; i++)
+			parents[i] = parents[parents[i]];
+
+		return parents;
+	}
+
+	private static int find(int[] parents, int node) {
+		while (parents[node] != node) {
+			parents[node] = parents[parents[node]];
+			node = parents[node];
+		}
+
+		return node;
+	}
+
+	/*
+	 * Sutton, M., Ben-Nun, T. & Barak, A. (2018), 'Optimizing Parallel Graph Connectivity Computation via Subgraph
+	 * Sampling', IPDPS 2018.
+	 *
+	 * Links only the first few neighbors of every node, samples the (by then usually dominant) largest component, and
+	 * then only processes the remaining connections of nodes outside of it.
+	 */
+	static int[] findSubGraphStartingNodesInParallel(SparseGraph graph) {
 		int size = graph.size();
 
+		AtomicIntegerArray components = new AtomicIntegerArray(size);
+		IntStream.range(0, size).parallel().forEach(node -> components.set(node, node));
+
+		for (int round = 0; round < NEIGHBOR_ROUNDS; round++) {
+			int r = round;
+			IntStream.range(0, size).parallel().forEach(node -> {
+				if (r < graph.numNeighbors(node))
+					link(components, node, graph.getNeighbor(node, r));
+			});
+			compress(components, size);
+		}
+
+		int largestComponent = sampleFrequentElement(components, size);
+
+		IntStream.range(0, size).parallel().forEach(node -> {
+			if (components.get(node) == largestComponent)
+				return;
+
+			int numNeighbors = graph.numNeighbors(node);
+			for (int i = NEIGHBOR_ROUNDS; i < numNeighbors; i++)
+				link(components, node, graph.getNeighbor(node, i));
+		});
+		compress(components, size);
+
 		int[] startingNodes = new int[size];
 		for (int i = 0; i < size; i++)
-			startingNodes[i] = i;
+			startingNodes[i] = components.get(i);
 
-		int[] connection = new int[2];
+		return startingNodes;
+	}
+
+	private static void link(AtomicIntegerArray components, int u, int v) {
+		int p1 = components.get(u);
+		int p2 = components.get(v);
+		while (p1 != p2) {
+			int high  = Math.max(p1, p2);
+			int low   = Math.min(p1, p2);
+			int pHigh = components.get(high);
+			if (pHigh == low)
+				break;
+			if (pHigh == high && components.compareAndSet(high, high, low))
+				break;
+
+			p1 = components.get(components.get(high));
+			p2 = components.get(low);
+		}
+	}
+
+	private static void compress(AtomicIntegerArray components, int size) {
+		IntStream.range(0, size).parallel().forEach(node -> {
+			while (components.get(node) != components.get(components.get(node)))
+				components.set(node, components.get(components.get(node)));
+		});
+	}
 
-		for (int step = 1; step < size; step++) {
-			boolean changed = false;
+	private static int sampleFrequentElement(AtomicIntegerArray components, int size) {
+		SplittableRandom random = new SplittableRandom(size);
 
-			ConnectionIterator iterator = graph.iterator();
-			// Suppress IntelliJ bug: Replacing by foreach changes to default `next()` which is much less efficient.
-			//noinspection WhileLoopReplaceableByForEach
-			while (iterator.hasNext()) {
-				iterator.next(connection);
-				int x = connection[0];
-				int y = connection[1];
-				assert x < y;
+		int[] samples = new int[NUM_SAMPLES];
+		for (int i = 0; i < NUM_SAMPLES; i++)
+			samples[i] = components.get(random.nextInt(size));
 
-				if (startingNodes[y] != startingNodes[x]) {
-					startingNodes[x] = Math.min(startingNodes[x], startingNodes[y]);
-					startingNodes[y] = startingNodes[x];
+		Arrays.sort(samples);
 
-					changed = true;
-				}
+		int mostFrequent = samples[0];
+		int bestCount    = 0;
+		for (int i = 0, count = 0; i < NUM_SAMPLES; i++) {
+			count = i > 0 && samples[i] == samples[i - 1] ? count + 1 : 1;
+			if (count > bestCount) {
+				bestCount = count;
+				mostFrequent = samples[i];
 			}
-
-			if (!changed)
-				return startingNodes;
 		}
 
-		throw new AssertionError("Iteration overflow");
+		return mostFrequent;
 	}
 
 	/*
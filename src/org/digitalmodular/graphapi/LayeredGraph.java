@@ -0,0 +1,534 @@
+/*
+ * This file is part of GraphAPI.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphapi;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Several graphs over overlapping node sets, stored once as their union. Nodes are identified by a label (e.g. a code
+ * point) and ordered by label. Every node and every connection has a bitmask of the layers it appears in, so
+ * comparisons between layers take a single scan over the union.
+ * <p>
+ * The union itself is presented as a {@link SparseGraph}. {@link #getLayer(int)} presents a single layer as a
+ * {@link SparseGraph} with the same node order as a graph built from that layer alone (ascending label), without
+ * copying any connections.
+ * <p>
+ * Use {@link Builder} to construct one, or {@link GraphIO} to read one.
+ * <p>
+ * Immutable. Thread-safe.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class LayeredGraph implements SparseGraph {
+	private static final long serialVersionUID = 2851837046629453391L;
+
+	/** The number of bits in the layer masks. */
+	public static final int MAX_LAYERS = 32;
+
+	private final String[] layerNames;
+	/** Node index → label, ascending. */
+	private final int[]    labels;
+	/** Per node, bit {@code l} is set if the node is in layer {@code l}. */
+	private final int[]    nodeLayers;
+
+	/** Neighbors of node {@code i} are at {@code neighbors[offsets[i]]} to {@code neighbors[offsets[i + 1] - 1]}. */
+	private final int[] offsets;
+	private final int[] neighbors;
+	/** Per entry in {@link #neighbors}, bit {@code l} is set if the connection is in layer {@code l}. */
+	private final int[] connectionLayers;
+
+	LayeredGraph(String[] layerNames, int[] labels, int[] nodeLayers,
+	             int[] offsets, int[] neighbors, int[] connectionLayers) {
+		this.layerNames = layerNames;
+		this.labels = labels;
+		this.nodeLayers = nodeLayers;
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+		this.connectionLayers = connectionLayers;
+	}
+
+	@Override
+	public int size() {
+		return labels.length;
+	}
+
+	public int numConnections() {
+		return neighbors.length / 2;
+	}
+
+	public int numLayers()                  { return layerNames.length; }
+
+	public String getLayerName(int layer)   { return layerNames[layer]; }
+
+	public int getLabel(int node)           { return labels[node]; }
+
+	/** @return Bit {@code l} is set if the node is in layer {@code l}. */
+	public int getNodeLayers(int node)      { return nodeLayers[node]; }
+
+	/**
+	 * @return The node index, or a negative value if there's no node with this label.
+	 */
+	public int indexOf(int label) {
+		return Arrays.binarySearch(labels, label);
+	}
+
+	/**
+	 * @return The layer index, or -1 if there's no layer with this name.
+	 */
+	public int indexOfLayer(String layerName) {
+		for (int layer = 0; layer < layerNames.length; layer++)
+			if (layerNames[layer].equals(layerName))
+				return layer;
+
+		return -1;
+	}
+
+	@Override
+	public int numNeighbors(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	@Override
+	public int getNeighbor(int node, int index) {
+		return neighbors[offsets[node] + index];
+	}
+
+	/** @return Bit {@code l} is set if the connection to the neighbor is in layer {@code l}. */
+	public int getConnectionLayers(int node, int index) {
+		return connectionLayers[offsets[node] + index];
+	}
+
+	/** @return Bit {@code l} is set if the connection is in layer {@code l}, or 0 if not connected in any layer. */
+	public int getConnectionLayersBetween(int x, int y) {
+		int i = Arrays.binarySearch(neighbors, offsets[y], offsets[y + 1], x);
+		return i >= 0 ? connectionLayers[i] : 0;
+	}
+
+	/** Connected in at least one layer. */
+	@Override
+	public boolean isConnected(int x, int y) {
+		return Arrays.binarySearch(neighbors, offsets[y], offsets[y + 1], x) >= 0;
+	}
+
+	public int[] countNodesPerLayer() {
+		int[] counts = new int[layerNames.length];
+		for (int mask : nodeLayers)
+			for (int layer = 0; layer < counts.length; layer++)
+				counts[layer] += (mask >>> layer) & 1;
+
+		return counts;
+	}
+
+	public int[] countConnectionsPerLayer() {
+		int[] counts = new int[layerNames.length];
+		for (int node = 0; node < labels.length; node++)
+			for (int i = offsets[node]; i < offsets[node + 1]; i++)
+				if (neighbors[i] > node)
+					for (int layer = 0; layer < counts.length; layer++)
+						counts[layer] += (connectionLayers[i] >>> layer) & 1;
+
+		return counts;
+	}
+
+	/**
+	 * Counts the connections that are in all the given layers. For example, the overlap of two layers, to compare
+	 * against the number of connections of each.
+	 *
+	 * @param layers Bit {@code l} is set to require layer {@code l}.
+	 */
+	public int countCommonConnections(int layers) {
+		int count = 0;
+		for (int node = 0; node < labels.length; node++)
+			for (int i = offsets[node]; i < offsets[node + 1]; i++)
+				if (neighbors[i] > node && (connectionLayers[i] & layers) == layers)
+					count++;
+
+		return count;
+	}
+
+	public Layer getLayer(int layer) {
+		if (layer < 0 || layer >= layerNames.length)
+			throw new IndexOutOfBoundsException("layer: " + layer + ", numLayers = " + layerNames.length);
+
+		return new Layer(layer);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if there's no layer with this name.
+	 */
+	public Layer getLayer(String layerName) {
+		int layer = indexOfLayer(layerName);
+		if (layer < 0)
+			throw new IllegalArgumentException("No such layer: " + layerName);
+
+		return new Layer(layer);
+	}
+
+	@Override
+	public void setConnection(int x, int y) {
+		throw new UnsupportedOperationException("LayeredGraph is immutable");
+	}
+
+	@Override
+	public void removeConnection(int x, int y) {
+		throw new UnsupportedOperationException("LayeredGraph is immutable");
+	}
+
+	@Override
+	public void setGraph(Graph other) {
+		throw new UnsupportedOperationException("LayeredGraph is immutable");
+	}
+
+	/**
+	 * Walks the neighbor lists instead of probing every pair of nodes. Connections are returned with the lower index
+	 * first, ordered by the lower index.
+	 */
+	@Override
+	public ConnectionIterator iterator() {
+		return new LayerIterator(-1, null);
+	}
+
+	/**
+	 * One layer of a {@link LayeredGraph}, as a graph of its own. Node {@code i} is the {@code i}-th node of the
+	 * layer, in label order. Only the node index mappings and degrees are stored, connections are read from the
+	 * layered graph.
+	 * <p>
+	 * {@link #getNeighbor(int, int)} skips over the connections of other layers. Each thread remembers where it
+	 * stopped, so walking the neighbors of a node in order takes time linear in the node's degree in the union.
+	 * <p>
+	 * Immutable. Thread-safe.
+	 */
+	public final class Layer implements SparseGraph {
+		private static final long serialVersionUID = -6312479513358307528L;
+
+		private final int   layer;
+		private final int   mask;
+		/** Layer node index → union node index. */
+		private final int[] nodes;
+		/** Union node index → layer node index, or -1. */
+		private final int[] layerNodes;
+		private final int[] degrees;
+		private final int   numConnections;
+
+		private transient ThreadLocal<Cursor> cursors;
+		/** Shortcut past the ThreadLocal lookup. Racy, but only used by the thread that owns it. */
+		private transient Cursor              lastCursor = null;
+
+		Layer(int layer) {
+			this.layer = layer;
+			mask = 1 << layer;
+
+			layerNodes = new int[labels.length];
+			int size = 0;
+			for (int node = 0; node < labels.length; node++)
+				layerNodes[node] = (nodeLayers[node] & mask) != 0 ? size++ : -1;
+
+			nodes = new int[size];
+			degrees = new int[size];
+			int numEntries = 0;
+			for (int node = 0; node < labels.length; node++) {
+				int layerNode = layerNodes[node];
+				if (layerNode < 0)
+					continue;
+
+				nodes[layerNode] = node;
+				for (int i = offsets[node]; i < offsets[node + 1]; i++)
+					if ((connectionLayers[i] & mask) != 0)
+						degrees[layerNode]++;
+
+				numEntries += degrees[layerNode];
+			}
+			numConnections = numEntries / 2;
+
+			cursors = ThreadLocal.withInitial(Cursor::new);
+		}
+
+		@Override
+		public int size() {
+			return nodes.length;
+		}
+
+		public int numConnections()           { return numConnections; }
+
+		public int getLayerIndex()            { return layer; }
+
+		public String getName()               { return layerNames[layer]; }
+
+		public int getLabel(int node)         { return labels[nodes[node]]; }
+
+		/** @return The node index in the {@link LayeredGraph}. */
+		public int getUnionNode(int node)     { return nodes[node]; }
+
+		public LayeredGraph getLayeredGraph() { return LayeredGraph.this; }
+
+		@Override
+		public int numNeighbors(int node) {
+			return degrees[node];
+		}
+
+		@Override
+		public int getNeighbor(int node, int index) {
+			if (index < 0 || index >= degrees[node])
+				throw new IndexOutOfBoundsException("index: " + index + ", numNeighbors = " + degrees[node]);
+
+			Cursor cursor = getCursor();
+			if (cursor.node != node || cursor.index > index) {
+				cursor.node = node;
+				cursor.index = -1;
+				cursor.position = offsets[nodes[node]] - 1;
+			}
+
+			while (cursor.index < index) {
+				do {
+					cursor.position++;
+				} while ((connectionLayers[cursor.position] & mask) == 0);
+
+				cursor.index++;
+			}
+
+			return layerNodes[neighbors[cursor.position]];
+		}
+
+		@Override
+		public boolean isConnected(int x, int y) {
+			return (getConnectionLayersBetween(nodes[x], nodes[y]) & mask) != 0;
+		}
+
+		@Override
+		public void setConnection(int x, int y) {
+			throw new UnsupportedOperationException("LayeredGraph is immutable");
+		}
+
+		@Override
+		public void removeConnection(int x, int y) {
+			throw new UnsupportedOperationException("LayeredGraph is immutable");
+		}
+
+		@Override
+		public void setGraph(Graph other) {
+			throw new UnsupportedOperationException("LayeredGraph is immutable");
+		}
+
+		/**
+		 * Walks the neighbor lists instead of probing every pair of nodes. Connections are returned with the lower
+		 * index first, ordered by the lower index.
+		 */
+		@Override
+		public ConnectionIterator iterator() {
+			return new LayerIterator(mask, layerNodes);
+		}
+
+		private Cursor getCursor() {
+			Cursor cursor = lastCursor;
+			if (cursor == null || cursor.owner != Thread.currentThread()) {
+				cursor = cursors.get();
+				lastCursor = cursor;
+			}
+
+			return cursor;
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.defaultReadObject();
+			cursors = ThreadLocal.withInitial(Cursor::new);
+		}
+	}
+
+	private static final class Cursor {
+		private final Thread owner = Thread.currentThread();
+
+		private int node     = -1;
+		private int index    = -1;
+		private int position = -1;
+	}
+
+	/**
+	 * Iterates over the connections of one layer, in layer node indices, or of the union if {@code mask} is -1 and
+	 * {@code layerNodes} is {@code null}.
+	 */
+	private final class LayerIterator implements ConnectionIterator {
+		private final int   mask;
+		private final int[] layerNodes;
+
+		private int node  = 0;
+		private int index = -1;
+
+		/**
+		 * @param layerNodes Union node → layer node, shared with the {@link Layer} and not modified.
+		 */
+		LayerIterator(int mask, int[] layerNodes) {
+			this.mask = mask;
+			this.layerNodes = layerNodes;
+
+			findNext();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < neighbors.length;
+		}
+
+		@Override
+		public int[] next() {
+			int[] connection = new int[2];
+			next(connection);
+			return connection;
+		}
+
+		@Override
+		public void next(int[] connection) {
+			if (!hasNext())
+				throw new NoSuchElementException("");
+
+			connection[0] = layerNodes == null ? node : layerNodes[node];
+			connection[1] = layerNodes == null ? neighbors[index] : layerNodes[neighbors[index]];
+			findNext();
+		}
+
+		private void findNext() {
+			while (++index < neighbors.length) {
+				while (index >= offsets[node + 1])
+					node++;
+
+				if (neighbors[index] > node && (connectionLayers[index] & mask) != 0)
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Collects named layers, each a graph with a label per node, and merges them into a {@link LayeredGraph}. Nodes
+	 * with the same label in different layers become the same node.
+	 * <p>
+	 * The layers are merged one at a time, so only the union and one layer's neighbor lists are in memory at once,
+	 * on top of the layers themselves.
+	 * <p>
+	 * Not Thread-safe.
+	 */
+	public static final class Builder {
+		private final List<String>      layerNames  = new ArrayList<>(MAX_LAYERS);
+		private final List<int[]>       layerLabels = new ArrayList<>(MAX_LAYERS);
+		private final List<SparseGraph> layers      = new ArrayList<>(MAX_LAYERS);
+
+		/**
+		 * @param labels The label of each node, ascending, so the node order is the same as in the layered graph.
+		 */
+		public Builder addLayer(String name, int[] labels, SparseGraph graph) {
+			requireNonNull(name);
+			requireNonNull(labels);
+			requireNonNull(graph);
+			if (layers.size() == MAX_LAYERS)
+				throw new IllegalStateException("Too many layers, maximum is " + MAX_LAYERS);
+			if (layerNames.contains(name))
+				throw new IllegalArgumentException("Duplicate layer name: " + name);
+			if (labels.length != graph.size())
+				throw new IllegalArgumentException("'labels' should have the same length as the graph size: " +
+				                                   labels.length + " != " + graph.size());
+			for (int i = 1; i < labels.length; i++)
+				if (labels[i] <= labels[i - 1])
+					throw new IllegalArgumentException("'labels' should be strictly ascending: " +
+					                                   labels[i - 1] + ", " + labels[i]);
+
+			layerNames.add(name);
+			layerLabels.add(labels);
+			layers.add(graph);
+			return this;
+		}
+
+		public LayeredGraph build() {
+			int[] labels = layerLabels.stream().flatMapToInt(Arrays::stream).sorted().distinct().toArray();
+
+			int[] nodeLayers       = new int[labels.length];
+			int[] offsets          = new int[labels.length + 1];
+			int[] neighbors        = new int[0];
+			int[] connectionLayers = new int[0];
+
+			for (int layer = 0; layer < layers.size(); layer++) {
+				int         mask        = 1 << layer;
+				int[]       localLabels = layerLabels.get(layer);
+				SparseGraph graph       = layers.get(layer);
+
+				// Labels are ascending on both sides, so the mapping keeps neighbor lists sorted
+				int[] nodes = new int[localLabels.length];
+				for (int i = 0; i < nodes.length; i++) {
+					nodes[i] = Arrays.binarySearch(labels, localLabels[i]);
+					nodeLayers[nodes[i]] |= mask;
+				}
+
+				int numEntries = 0;
+				for (int i = 0; i < nodes.length; i++)
+					numEntries += graph.numNeighbors(i);
+
+				int[] newOffsets          = new int[labels.length + 1];
+				int[] newNeighbors        = new int[neighbors.length + numEntries];
+				int[] newConnectionLayers = new int[neighbors.length + numEntries];
+				int   end                 = 0;
+				int   i                   = 0;
+				for (int node = 0; node < labels.length; node++) {
+					newOffsets[node] = end;
+
+					// Merge the union's list with the layer's list
+					int j         = offsets[node];
+					int k         = 0;
+					int layerNode = i < nodes.length && nodes[i] == node ? i++ : -1;
+					int degree    = layerNode < 0 ? 0 : graph.numNeighbors(layerNode);
+					while (j < offsets[node + 1] || k < degree) {
+						int neighbor      = j < offsets[node + 1] ? neighbors[j] : Integer.MAX_VALUE;
+						int layerNeighbor = k < degree ? nodes[graph.getNeighbor(layerNode, k)] : Integer.MAX_VALUE;
+						if (neighbor < layerNeighbor) {
+							newNeighbors[end] = neighbor;
+							newConnectionLayers[end++] = connectionLayers[j++];
+						} else if (neighbor > layerNeighbor) {
+							newNeighbors[end] = layerNeighbor;
+							newConnectionLayers[end++] = mask;
+							k++;
+						} else {
+							newNeighbors[end] = neighbor;
+							newConnectionLayers[end++] = connectionLayers[j++] | mask;
+							k++;
+						}
+					}
+				}
+				newOffsets[labels.length] = end;
+
+				offsets = newOffsets;
+				neighbors = Arrays.copyOf(newNeighbors, end);
+				connectionLayers = Arrays.copyOf(newConnectionLayers, end);
+			}
+
+			return new LayeredGraph(layerNames.toArray(new String[0]), labels, nodeLayers,
+			                        offsets, neighbors, connectionLayers);
+		}
+	}
+}
@@ -38,7 +38,7 @@ import static java.util.Objects.requireNonNull;
  * @author Mark Jeronimus
  */
 // Created 2018-02-10
-public class NeighborGraph extends MatrixGraph {
+public class NeighborGraph extends MatrixGraph implements SparseGraph {
 	private static final long serialVersionUID = -5755588310875985669L;
 
 	private final int[]   numNeighbors;
@@ -104,8 +104,10 @@ public class NeighborGraph extends MatrixGraph {
 		}
 	}
 
+	@Override
 	public int numNeighbors(int node)           { return numNeighbors[node]; }
 
+	@Override
 	public int getNeighbor(int node, int index) { return neighbors[node][index]; }
 
 	private void addNeighbor(int node, int newNeighbor) {
@@ -0,0 +1,191 @@
+/*
+ * This file is part of GraphAPI.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphapi;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Partition of the nodes of a graph into classes of (true) twins: nodes with the same closed neighborhood, i.e. that
+ * are connected to each other and to exactly the same other nodes. In a kanji graph, these are the kanji with the same
+ * set of components.
+ * <p>
+ * Swapping two twins is an automorphism of the graph, so every structural per-node statistic has the same value for
+ * all nodes of a class. It suffices to calculate it for one representative per class and {@link #expand(double[])}
+ * the result.
+ * <p>
+ * Classes are found by hashing the closed neighborhoods (in parallel) and sorting by hash, after which only nodes with
+ * equal hashes are compared.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class TwinClasses {
+	private final SparseGraph graph;
+	/** Node → class. */
+	private final int[]       classes;
+	/** Class → lowest node in the class. */
+	private final int[]       representatives;
+	private final int[]       classSizes;
+
+	public TwinClasses(SparseGraph graph) {
+		this.graph = requireNonNull(graph);
+
+		int size = graph.size();
+
+		long[] hashes = IntStream.range(0, size).parallel().mapToLong(this::hashClosedNeighborhood).toArray();
+
+		// Sort nodes by (hash, node) so candidates are adjacent and classes are discovered lowest node first
+		Integer[] order = new Integer[size];
+		for (int node = 0; node < size; node++)
+			order[node] = node;
+		Arrays.sort(order, (a, b) -> hashes[a] != hashes[b] ? Long.compare(hashes[a], hashes[b]) : a - b);
+
+		int[] classOfNode       = new int[size];
+		int[] representativeIds = new int[size];
+		int   numClasses        = 0;
+		int   begin             = 0;
+		while (begin < size) {
+			int end = begin + 1;
+			while (end < size && hashes[order[end]] == hashes[order[begin]])
+				end++;
+
+			// Almost always a single class per hash, but verify to be safe against collisions
+			int firstClass = numClasses;
+			for (int i = begin; i < end; i++) {
+				int node = order[i];
+
+				int twinClass = -1;
+				for (int c = firstClass; c < numClasses; c++) {
+					if (areTwins(representativeIds[c], node)) {
+						twinClass = c;
+						break;
+					}
+				}
+
+				if (twinClass < 0) {
+					twinClass = numClasses++;
+					representativeIds[twinClass] = node;
+				}
+
+				classOfNode[node] = twinClass;
+			}
+
+			begin = end;
+		}
+
+		// Renumber classes in order of their representative
+		int[] renumber = new int[numClasses];
+		int   c        = 0;
+		for (int node = 0; node < size; node++)
+			if (representativeIds[classOfNode[node]] == node)
+				renumber[classOfNode[node]] = c++;
+
+		classes = new int[size];
+		representatives = new int[numClasses];
+		classSizes = new int[numClasses];
+		for (int node = 0; node < size; node++) {
+			int twinClass = renumber[classOfNode[node]];
+			classes[node] = twinClass;
+			if (classSizes[twinClass]++ == 0)
+				representatives[twinClass] = node;
+		}
+	}
+
+	public int size()                           { return classes.length; }
+
+	public int numClasses()                     { return representatives.length; }
+
+	public int getClass(int node)               { return classes[node]; }
+
+	public int getRepresentative(int twinClass) { return representatives[twinClass]; }
+
+	public int getClassSize(int twinClass)      { return classSizes[twinClass]; }
+
+	/** The lowest node of each class, in ascending order. */
+	public int[] getRepresentatives() { return representatives.clone(); }
+
+	/**
+	 * @param classValues A value for each class.
+	 * @return A value for each node, that of its class.
+	 */
+	public double[] expand(double[] classValues) {
+		if (classValues.length != representatives.length)
+			throw new IllegalArgumentException("Number of classes differ: " + representatives.length + " vs " +
+			                                   classValues.length);
+
+		double[] values = new double[classes.length];
+		for (int node = 0; node < classes.length; node++)
+			values[node] = classValues[classes[node]];
+
+		return values;
+	}
+
+	/** Order-independent, so the neighbor lists don't need to be merged with the node itself. */
+	private long hashClosedNeighborhood(int node) {
+		long hash         = mix64(node);
+		int  numNeighbors = graph.numNeighbors(node);
+		for (int i = 0; i < numNeighbors; i++)
+			hash += mix64(graph.getNeighbor(node, i));
+
+		return hash;
+	}
+
+	/**
+	 * Two different nodes are twins iff they're connected and their neighbor lists are equal after removing each
+	 * other.
+	 */
+	private boolean areTwins(int x, int y) {
+		int numNeighbors = graph.numNeighbors(x);
+		if (numNeighbors != graph.numNeighbors(y) || !graph.isConnected(x, y))
+			return false;
+
+		int i = 0;
+		int j = 0;
+		while (true) {
+			if (i < numNeighbors && graph.getNeighbor(x, i) == y)
+				i++;
+			if (j < numNeighbors && graph.getNeighbor(y, j) == x)
+				j++;
+			if (i == numNeighbors || j == numNeighbors)
+				return i == numNeighbors && j == numNeighbors;
+			if (graph.getNeighbor(x, i) != graph.getNeighbor(y, j))
+				return false;
+
+			i++;
+			j++;
+		}
+	}
+
+	/** SplitMix64 finalizer. */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of GraphAPI.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphapi;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable undirected graph without self-loops, with a positive {@code int} weight per connection. Stored like
+ * {@link CompactGraph}, with the weights in an array parallel to the neighbors.
+ * <p>
+ * As a {@link SparseGraph}, unweighted calculators see it as the graph of all connections with non-zero weight.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class WeightedGraph implements SparseGraph {
+	private static final long serialVersionUID = 2279434380564573718L;
+
+	private final int[] offsets;
+	private final int[] neighbors;
+	private final int[] weights;
+
+	/**
+	 * Takes ownership of the arrays. The neighbors of node {@code i} are at {@code neighbors[offsets[i]]} to
+	 * {@code neighbors[offsets[i + 1] - 1]}, in ascending order, with their weights at the same indices in
+	 * {@code weights}. Every connection must be present from both sides with the same weight.
+	 */
+	public WeightedGraph(int[] offsets, int[] neighbors, int[] weights) {
+		requireNonNull(offsets, "offsets");
+		requireNonNull(neighbors, "neighbors");
+		requireNonNull(weights, "weights");
+		if (offsets.length < 2)
+			throw new IllegalArgumentException("size should be at least 1: " + (offsets.length - 1));
+		if (neighbors.length != weights.length || offsets[offsets.length - 1] != neighbors.length)
+			throw new IllegalArgumentException("Array lengths differ: " + offsets[offsets.length - 1] + ", " +
+			                                   neighbors.length + ", " + weights.length);
+
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+		this.weights = weights;
+	}
+
+	@Override
+	public int size() {
+		return offsets.length - 1;
+	}
+
+	public int numConnections() {
+		return neighbors.length / 2;
+	}
+
+	@Override
+	public int numNeighbors(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	@Override
+	public int getNeighbor(int node, int index) {
+		return neighbors[offsets[node] + index];
+	}
+
+	/** The weight of the connection to {@link #getNeighbor(int, int)}. */
+	public int getWeight(int node, int index) {
+		return weights[offsets[node] + index];
+	}
+
+	/**
+	 * @return The weight of the connection between two nodes, or 0 if they're not connected.
+	 */
+	public int getWeightBetween(int x, int y) {
+		int i = Arrays.binarySearch(neighbors, offsets[y], offsets[y + 1], x);
+		return i >= 0 ? weights[i] : 0;
+	}
+
+	/** The sum of the weights of the connections of a node. */
+	public long getStrength(int node) {
+		long strength = 0;
+		for (int i = offsets[node]; i < offsets[node + 1]; i++)
+			strength += weights[i];
+
+		return strength;
+	}
+
+	@Override
+	public boolean isConnected(int x, int y) {
+		return Arrays.binarySearch(neighbors, offsets[y], offsets[y + 1], x) >= 0;
+	}
+
+	@Override
+	public void setConnection(int x, int y) {
+		throw new UnsupportedOperationException("WeightedGraph is immutable");
+	}
+
+	@Override
+	public void removeConnection(int x, int y) {
+		throw new UnsupportedOperationException("WeightedGraph is immutable");
+	}
+
+	@Override
+	public void setGraph(Graph other) {
+		throw new UnsupportedOperationException("WeightedGraph is immutable");
+	}
+
+	/**
+	 * Walks the neighbor lists instead of probing every pair of nodes. Connections are returned with the lower index
+	 * first, ordered by the lower index.
+	 */
+	@Override
+	public ConnectionIterator iterator() {
+		//noinspection AnonymousInnerClassWithTooManyMethods,OverlyComplexAnonymousInnerClass
+		return new ConnectionIterator() {
+			private int node  = 0;
+			private int index = -1;
+
+			{
+				findNext();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return index < neighbors.length;
+			}
+
+			@Override
+			public int[] next() {
+				int[] connection = new int[2];
+				next(connection);
+				return connection;
+			}
+
+			@Override
+			public void next(int[] connection) {
+				if (!hasNext())
+					throw new NoSuchElementException("");
+
+				connection[0] = node;
+				connection[1] = neighbors[index];
+				findNext();
+			}
+
+			private void findNext() {
+				while (++index < neighbors.length) {
+					while (index >= offsets[node + 1])
+						node++;
+
+					if (neighbors[index] > node)
+						break;
+				}
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		int           size = size();
+		StringBuilder sb   = new StringBuilder(size * 4 + neighbors.length * 7);
+
+		for (int node = 0; node < size; node++) {
+			if (node > 0)
+				sb.append('\n');
+
+			sb.append(node).append(' ');
+			for (int i = offsets[node]; i < offsets[node + 1]; i++)
+				sb.append(' ').append(neighbors[i]).append(':').append(weights[i]);
+		}
+		return sb.toString();
+	}
+}
@@ -36,7 +36,7 @@ import org.digitalmodular.graphapi.Graph;
 import org.digitalmodular.graphapi.GraphIO;
 import org.digitalmodular.graphapi.MatrixGraph;
 import org.digitalmodular.kanjiresearch.util.ComponentFileIO;
-import org.digitalmodular.kanjiresearch.util.KanjiList;
+import org.digitalmodular.kanjiresearch.util.KanjiComponentIncidence;
 import org.digitalmodular.kanjiresearch.util.TaggedKanjiList;
 
 /**
@@ -65,12 +65,7 @@ public final class MakeKanjiGraphsMain {
 	private static void process(String filenameIn) throws IOException {
 		List<TaggedKanjiList> componentLists = ComponentFileIO.read(filenameIn);
 
-		KanjiList kanjiSet = collectKanji(componentLists);
-
-		Graph graph = new MatrixGraph(kanjiSet.size());
-
-		for (TaggedKanjiList componentList : componentLists)
-			addCluster(componentList, kanjiSet, graph);
+		Graph graph = new MatrixGraph(new KanjiComponentIncidence(componentLists));
 
 		write(graph, filenameIn, "-graph.txt");
 		write(graph, filenameIn, "-graph.conn");
@@ -78,24 +73,6 @@ public final class MakeKanjiGraphsMain {
 			write(graph, filenameIn, "-graph.png");
 	}
 
-	private static KanjiList collectKanji(Iterable<? extends KanjiList> componentLists) {
-		KanjiList kanjiSet = new KanjiList();
-		componentLists.forEach(kanjiSet::addAll);
-		return kanjiSet;
-	}
-
-	private static void addCluster(KanjiList componentList, KanjiList kanjiSet, Graph graph) {
-		int n = componentList.size();
-		for (int i = 1; i < n; i++) {
-			int node1 = kanjiSet.indexOf(componentList.get(i));
-			for (int j = 0; j < i; j++) {
-				int node2 = kanjiSet.indexOf(componentList.get(j));
-
-				graph.setConnection(node1, node2);
-			}
-		}
-	}
-
 	private static void write(Graph graph, String filenameIn, CharSequence suffix) throws IOException {
 		String filenameOut = makeFilename(filenameIn, "kanjigraphs", suffix);
 		GraphIO.write(graph, filenameOut);
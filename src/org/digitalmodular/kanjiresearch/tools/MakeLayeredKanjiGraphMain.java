@@ -0,0 +1,88 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.kanjiresearch.tools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.digitalmodular.graphapi.GraphIO;
+import org.digitalmodular.graphapi.LayeredGraph;
+import org.digitalmodular.kanjiresearch.util.ComponentFileIO;
+import org.digitalmodular.kanjiresearch.util.KanjiComponentIncidence;
+
+/**
+ * Merges the kanji graphs of all sets into a single {@link LayeredGraph}, with one layer per set and code points as
+ * node labels. Every layer has the same node order as the set's own graph file.
+ * <p>
+ * Requires: <tt>*-components.utf8</tt>
+ * <p>
+ * Produces: <tt>kanjisets.layers</tt>
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class MakeLayeredKanjiGraphMain {
+	public static void main(String... args) throws IOException {
+		System.setProperty("line.separator", "\n");
+
+		String[] filenames = Files.list(Paths.get("components-filtered-per-set"))
+		                          .map(Path::toString)
+		                          .filter(filename -> filename.endsWith("-components.utf8"))
+		                          .sorted()
+		                          .toArray(String[]::new);
+
+		LayeredGraph.Builder builder = new LayeredGraph.Builder();
+		for (String filename : filenames) {
+			KanjiComponentIncidence incidence = new KanjiComponentIncidence(ComponentFileIO.read(filename));
+
+			int[] codePoints = new int[incidence.size()];
+			for (int node = 0; node < codePoints.length; node++)
+				codePoints[node] = incidence.getCodePoint(node);
+
+			builder.addLayer(makeLayerName(filename), codePoints, incidence);
+		}
+
+		LayeredGraph graph = builder.build();
+
+		int[] numNodes       = graph.countNodesPerLayer();
+		int[] numConnections = graph.countConnectionsPerLayer();
+		for (int layer = 0; layer < graph.numLayers(); layer++)
+			System.out.println(graph.getLayerName(layer) + '\t' + numNodes[layer] + '\t' + numConnections[layer]);
+
+		String filenameOut = "kanjigraphs/kanjisets.layers";
+		GraphIO.write(graph, filenameOut);
+
+		System.out.println(graph.size() + " nodes, " + graph.numConnections() + " connections -> " + filenameOut);
+	}
+
+	private static String makeLayerName(String filenameIn) {
+		String name = Paths.get(filenameIn).getFileName().toString();
+		return name.substring(0, name.length() - "-components.utf8".length());
+	}
+}
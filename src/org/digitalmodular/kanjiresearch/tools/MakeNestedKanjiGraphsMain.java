@@ -0,0 +1,160 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.kanjiresearch.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.digitalmodular.graphapi.Graph;
+import org.digitalmodular.graphapi.GraphIO;
+import org.digitalmodular.graphapi.MatrixGraph;
+import org.digitalmodular.kanjiresearch.util.ComponentFileIO;
+import org.digitalmodular.kanjiresearch.util.IncrementalKanjiGraph;
+import org.digitalmodular.kanjiresearch.util.KanjiComponentIncidence;
+import org.digitalmodular.kanjiresearch.util.KanjiList;
+import org.digitalmodular.kanjiresearch.util.KanjiSetFileIO;
+import org.digitalmodular.kanjiresearch.util.RadKFileIO;
+import org.digitalmodular.kanjiresearch.util.TaggedKanjiList;
+
+/**
+ * Does the work of {@link FilterComponentKanjiFilesMain} and {@link MakeKanjiGraphsMain} for chains of nested kanji
+ * sets, growing one {@link IncrementalKanjiGraph} per chain instead of starting over for every set. The local
+ * statistics that can be updated incrementally (degree, interconnections, clustering coefficient and subgraph) are
+ * written for every set.
+ * <p>
+ * Requires: <tt>radkfilex</tt>, <tt>*-set.utf8</tt>
+ * <p>
+ * Produces: <tt>*-components.utf8</tt>, <tt>*-graph.conn</tt>, <tt>*-graph.txt</tt>, <tt>*-incremental.tsv</tt>
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class MakeNestedKanjiGraphsMain {
+	/** Each set is a superset of the previous one in the same chain. */
+	private static final String[][] CHAINS = {
+			{"kyouiku1958-grade1", "kyouiku1958-grade2", "kyouiku1958-grade3",
+			 "kyouiku1958-grade4", "kyouiku1958-grade5", "kyouiku1958-grade6", "touyou1946"},
+			{"kyouiku1977-grade1", "kyouiku1977-grade2", "kyouiku1977-grade3",
+			 "kyouiku1977-grade4", "kyouiku1977-grade5", "kyouiku1977-grade6", "jouyou1981"},
+			{"kyouiku1989-grade1", "kyouiku1989-grade2", "kyouiku1989-grade3",
+			 "kyouiku1989-grade4", "kyouiku1989-grade5", "kyouiku1989-grade6", "jouyou1981"},
+			{"kyouiku2017-grade1", "kyouiku2017-grade2", "kyouiku2017-grade3",
+			 "kyouiku2017-grade4", "kyouiku2017-grade5", "kyouiku2017-grade6", "jouyou2010"},
+			{"jouyou2010-in-jisx0208", "jisx0208", "jisx0208+jisx0212"}};
+
+	public static void main(String... args) throws IOException {
+		System.setProperty("line.separator", "\n");
+
+		Collection<TaggedKanjiList> componentLists = RadKFileIO.read("componentsets/radkfilex", "EUC-JP");
+
+		for (String[] chain : CHAINS)
+			process(chain, componentLists);
+	}
+
+	private static void process(String[] chain, Collection<TaggedKanjiList> componentLists) throws IOException {
+		IncrementalKanjiGraph graph = new IncrementalKanjiGraph(componentLists);
+
+		KanjiList previousSet = new KanjiList();
+		for (String name : chain) {
+			KanjiList kanjiSet = KanjiSetFileIO.read("kanjisets/" + name + "-set.utf8");
+			checkNested(previousSet, kanjiSet, name);
+			previousSet = kanjiSet;
+
+			int numAdded = graph.addAll(kanjiSet);
+			System.out.println(name + ": " + numAdded + " added, " + graph.size() + " nodes, " +
+			                   graph.numSubGraphs() + " subgraphs");
+
+			List<TaggedKanjiList> filteredLists = graph.getComponentLists();
+			makeComponentsFile(name, filteredLists);
+			makeGraphFiles(name, filteredLists);
+			makeStatisticsFile(name, graph);
+		}
+	}
+
+	private static void checkNested(KanjiList previousSet, KanjiList kanjiSet, String name) {
+		KanjiList missing = previousSet.difference(kanjiSet);
+		if (!missing.isEmpty())
+			throw new IllegalArgumentException("'" + name + "' is not a superset of the previous set, " +
+			                                   "it lacks: " + missing.getKanjiString());
+	}
+
+	private static void makeComponentsFile(String name, Collection<TaggedKanjiList> filteredLists)
+			throws IOException {
+		String filenameOut = "components-filtered-per-set/" + name + "-components.utf8";
+		ComponentFileIO.write(filteredLists, filenameOut);
+
+		System.out.println(name + " -> " + filenameOut);
+	}
+
+	private static void makeGraphFiles(String name, List<TaggedKanjiList> filteredLists) throws IOException {
+		Graph graph = new MatrixGraph(new KanjiComponentIncidence(filteredLists));
+
+		write(graph, name, "-graph.txt");
+		write(graph, name, "-graph.conn");
+		if (graph.size() < 3000)
+			write(graph, name, "-graph.png");
+	}
+
+	private static void write(Graph graph, String name, CharSequence suffix) throws IOException {
+		String filenameOut = "kanjigraphs/" + name + suffix;
+		GraphIO.write(graph, filenameOut);
+
+		System.out.println(name + " -> " + filenameOut);
+	}
+
+	private static void makeStatisticsFile(String name, IncrementalKanjiGraph graph) throws IOException {
+		String filenameOut = "graphstatistics/" + name + "-incremental.tsv";
+		try (BufferedWriter out = Files.newBufferedWriter(Paths.get(filenameOut))) {
+			out.write("i\tKanji\tDegree\tInterconnections\tCC\tSubGraph\n");
+
+			// Number the subgraphs in order of appearance
+			int[] subGraphs    = new int[graph.size()];
+			int   numSubGraphs = 0;
+			Arrays.fill(subGraphs, -1);
+
+			int[] nodes = graph.getSortedNodes();
+			for (int i = 0; i < nodes.length; i++) {
+				int node = nodes[i];
+				int root = graph.getSubGraph(node);
+				if (subGraphs[root] < 0)
+					subGraphs[root] = numSubGraphs++;
+
+				out.write(String.format("%d\t%s\t%d\t%d\t%7.5f\t%d\n", i,
+				                        new String(new int[]{graph.getCodePoint(node)}, 0, 1),
+				                        graph.getDegree(node), graph.getNumTriangles(node),
+				                        graph.getClusteringCoefficient(node), subGraphs[root]));
+			}
+		}
+
+		System.out.println(name + " -> " + filenameOut);
+	}
+}
@@ -0,0 +1,316 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.kanjiresearch.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Kanji graph (kanji are nodes, shared components are connections) that grows one kanji at a time, while keeping
+ * per-node statistics up to date. Meant for chains of nested kanji sets, like the kyouiku grades, where every set is a
+ * superset of the previous one: instead of rebuilding and re-analyzing every set, only the new kanji are added.
+ * <p>
+ * When a kanji is added, its neighbors are the current kanji of its components. Updating the statistics costs
+ * {@code O(d²)} connection tests, for a new kanji with {@code d} neighbors:
+ * <ul>
+ * <li>Degree: the new kanji gets {@code d}, each neighbor one more.</li>
+ * <li>Triangles: every connected pair of neighbors forms a new triangle with the new kanji.</li>
+ * <li>Subgraph membership: union-find, which only ever needs to merge.</li>
+ * </ul>
+ * Nodes are numbered in the order they were added. {@link #getSortedNodes()} gives the order of the per-set graph
+ * files, which are sorted by code point.
+ * <p>
+ * Kanji without components are skipped, like they are when building a graph from a component file.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class IncrementalKanjiGraph {
+	private final List<TaggedKanjiList> allComponentLists;
+	/** Per code point (indexed by binary search in {@link #allKanji}), the indices of its components. */
+	private final int[]                 allKanji;
+	private final int[][]               allKanjiComponents;
+
+	/** Per component, the nodes that have it, in the order they were added. */
+	private final int[][] componentMembers;
+	private final int[]   numComponentMembers;
+
+	private int[]   codePoints   = new int[256];
+	private int[][] components   = new int[256][];
+	/** Per node, one bit per component (modulo 64), to reject most unconnected pairs without comparing components. */
+	private long[]  signatures   = new long[256];
+	private int[]   degrees      = new int[256];
+	private long[]  triangles    = new long[256];
+	private int[]   parents      = new int[256];
+	private int[]   visited      = new int[256];
+	private int     size         = 0;
+	private int     numSubGraphs = 0;
+	private int     generation   = 0;
+
+	/**
+	 * @param componentLists All components with all their kanji, e.g. from {@link RadKFileIO}.
+	 */
+	public IncrementalKanjiGraph(Collection<? extends TaggedKanjiList> componentLists) {
+		allComponentLists = new ArrayList<>(requireNonNull(componentLists));
+
+		KanjiList kanjiSet = new KanjiList();
+		componentLists.forEach(kanjiSet::addAll);
+		allKanji = kanjiSet.toArray();
+
+		int[] numKanjiComponents = new int[allKanji.length];
+		for (TaggedKanjiList componentList : allComponentLists)
+			for (int i = 0; i < componentList.size(); i++)
+				numKanjiComponents[Arrays.binarySearch(allKanji, componentList.get(i))]++;
+
+		allKanjiComponents = new int[allKanji.length][];
+		for (int k = 0; k < allKanji.length; k++)
+			allKanjiComponents[k] = new int[numKanjiComponents[k]];
+
+		Arrays.fill(numKanjiComponents, 0);
+		for (int component = 0; component < allComponentLists.size(); component++) {
+			TaggedKanjiList componentList = allComponentLists.get(component);
+			for (int i = 0; i < componentList.size(); i++) {
+				int k = Arrays.binarySearch(allKanji, componentList.get(i));
+				allKanjiComponents[k][numKanjiComponents[k]++] = component;
+			}
+		}
+
+		componentMembers = new int[allComponentLists.size()][];
+		for (int component = 0; component < allComponentLists.size(); component++)
+			componentMembers[component] = new int[allComponentLists.get(component).size()];
+		numComponentMembers = new int[allComponentLists.size()];
+	}
+
+	/**
+	 * Adds all kanji of the set that aren't in the graph yet, in code point order.
+	 *
+	 * @return The number of kanji added.
+	 */
+	public int addAll(KanjiList kanjiSet) {
+		int numAdded = 0;
+		for (int i = 0; i < kanjiSet.size(); i++)
+			if (add(kanjiSet.get(i)))
+				numAdded++;
+
+		return numAdded;
+	}
+
+	/**
+	 * @return {@code false} if the kanji was already present or has no components.
+	 */
+	public boolean add(int codePoint) {
+		int k = Arrays.binarySearch(allKanji, codePoint);
+		if (k < 0)
+			return false;
+
+		int[] kanjiComponents = allKanjiComponents[k];
+		if (kanjiComponents.length == 0 || contains(kanjiComponents[0], codePoint))
+			return false;
+
+		ensureCapacity(size + 1);
+		int node = size++;
+		codePoints[node] = codePoint;
+		components[node] = kanjiComponents;
+		signatures[node] = signature(kanjiComponents);
+		parents[node] = node;
+		numSubGraphs++;
+
+		// Neighbors are the union of the current members of the components
+		nextGeneration();
+		int[] neighbors    = new int[16];
+		int   numNeighbors = 0;
+		for (int component : kanjiComponents) {
+			for (int i = 0; i < numComponentMembers[component]; i++) {
+				int neighbor = componentMembers[component][i];
+				if (visited[neighbor] != generation) {
+					visited[neighbor] = generation;
+					if (numNeighbors == neighbors.length)
+						neighbors = Arrays.copyOf(neighbors, numNeighbors * 2);
+					neighbors[numNeighbors++] = neighbor;
+				}
+			}
+
+			componentMembers[component][numComponentMembers[component]++] = node;
+		}
+
+		degrees[node] = numNeighbors;
+		for (int i = 0; i < numNeighbors; i++) {
+			int neighbor1 = neighbors[i];
+			degrees[neighbor1]++;
+			union(node, neighbor1);
+
+			for (int j = 0; j < i; j++) {
+				int neighbor2 = neighbors[j];
+				if (isConnected(neighbor1, neighbor2)) {
+					triangles[neighbor1]++;
+					triangles[neighbor2]++;
+					triangles[node]++;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	public int size() { return size; }
+
+	public int getCodePoint(int node) { return codePoints[node]; }
+
+	public int getDegree(int node) { return degrees[node]; }
+
+	/** The number of connections between the neighbors of a node. */
+	public long getNumTriangles(int node) { return triangles[node]; }
+
+	/** The Watts-Strogatz clustering coefficient. */
+	public double getClusteringCoefficient(int node) {
+		int degree = degrees[node];
+		return degree < 2 ? 0 : triangles[node] / (degree * (degree - 1) / 2.0);
+	}
+
+	public int numSubGraphs() { return numSubGraphs; }
+
+	/**
+	 * @return A label that is equal for all nodes in the same subgraph, namely the first added node of the subgraph.
+	 */
+	public int getSubGraph(int node) {
+		return find(node);
+	}
+
+	public boolean isConnected(int x, int y) {
+		if (x == y || (signatures[x] & signatures[y]) == 0)
+			return false;
+
+		int[] componentsX = components[x];
+		int[] componentsY = components[y];
+		int   i           = 0;
+		int   j           = 0;
+		while (i < componentsX.length && j < componentsY.length) {
+			if (componentsX[i] < componentsY[j])
+				i++;
+			else if (componentsX[i] > componentsY[j])
+				j++;
+			else
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return The nodes, sorted by code point. This is the node order of a graph built from
+	 * {@link #getComponentLists()}.
+	 */
+	public int[] getSortedNodes() {
+		Integer[] order = new Integer[size];
+		for (int node = 0; node < size; node++)
+			order[node] = node;
+		Arrays.sort(order, (a, b) -> Integer.compare(codePoints[a], codePoints[b]));
+
+		return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * @return All components, in the original order, with only the kanji in the graph.
+	 */
+	public List<TaggedKanjiList> getComponentLists() {
+		List<TaggedKanjiList> componentLists = new ArrayList<>(allComponentLists.size());
+		for (int component = 0; component < allComponentLists.size(); component++) {
+			TaggedKanjiList componentList = new TaggedKanjiList(allComponentLists.get(component).getTag());
+			for (int i = 0; i < numComponentMembers[component]; i++)
+				componentList.add(codePoints[componentMembers[component][i]]);
+
+			componentLists.add(componentList);
+		}
+
+		return componentLists;
+	}
+
+	private static long signature(int[] components) {
+		long signature = 0;
+		for (int component : components)
+			signature |= 1L << component;
+
+		return signature;
+	}
+
+	private boolean contains(int component, int codePoint) {
+		for (int i = 0; i < numComponentMembers[component]; i++)
+			if (codePoints[componentMembers[component][i]] == codePoint)
+				return true;
+
+		return false;
+	}
+
+	/** Union-find with path halving, linking to the lower root. */
+	private int find(int node) {
+		while (parents[node] != node) {
+			parents[node] = parents[parents[node]];
+			node = parents[node];
+		}
+
+		return node;
+	}
+
+	private void union(int x, int y) {
+		int rootX = find(x);
+		int rootY = find(y);
+		if (rootX == rootY)
+			return;
+
+		if (rootX < rootY)
+			parents[rootY] = rootX;
+		else
+			parents[rootX] = rootY;
+
+		numSubGraphs--;
+	}
+
+	private void nextGeneration() {
+		generation++;
+		if (generation == 0) {
+			Arrays.fill(visited, 0);
+			generation = 1;
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= codePoints.length)
+			return;
+
+		int newCapacity = Math.max(capacity, codePoints.length * 2);
+		codePoints = Arrays.copyOf(codePoints, newCapacity);
+		components = Arrays.copyOf(components, newCapacity);
+		signatures = Arrays.copyOf(signatures, newCapacity);
+		degrees = Arrays.copyOf(degrees, newCapacity);
+		triangles = Arrays.copyOf(triangles, newCapacity);
+		parents = Arrays.copyOf(parents, newCapacity);
+		visited = Arrays.copyOf(visited, newCapacity);
+	}
+}
@@ -0,0 +1,428 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.kanjiresearch.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+import static java.util.Objects.requireNonNull;
+
+import org.digitalmodular.graphapi.Graph;
+import org.digitalmodular.graphapi.SparseGraph;
+import org.digitalmodular.graphapi.WeightedGraph;
+
+/**
+ * Bipartite kanji&times;component incidence, presented as its one-mode projection: two kanji are connected iff they
+ * share a component.
+ * <p>
+ * Only the incidences are stored, as sorted lists from both sides (compressed sparse rows), so memory is linear in the
+ * number of incidences instead of in the number of projected connections. Projected queries are answered on demand:
+ * {@link #isConnected(int, int)} and {@link #countSharedComponents(int, int)} intersect two component lists, and the
+ * neighbors of a kanji are the union of the kanji lists of its components. The last few neighbor lists are cached per
+ * thread, which suits the calculators, as they query all neighbors of one node at a time.
+ * <p>
+ * Immutable. Thread-safe.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class KanjiComponentIncidence implements SparseGraph {
+	private static final long serialVersionUID = -3176032645541295383L;
+
+	private static final int CACHE_SIZE = 8;
+
+	/** Node index → code point, ascending. */
+	private final int[] codePoints;
+	/** Component index → tag, in the order of the component lists. */
+	private final int[] tags;
+
+	private final int[]  componentOffsets;
+	private final int[]  components;
+	private final int[]  kanjiOffsets;
+	private final int[]  kanji;
+	/** Per kanji, bit {@code c & 63} is set for each component {@code c}, to quickly reject unconnected pairs. */
+	private final long[] signatures;
+
+	private transient ThreadLocal<NeighborCache> neighborCaches;
+	/** Shortcut past the ThreadLocal lookup. Racy, but only used by the thread that owns it. */
+	private transient NeighborCache              lastNeighborCache = null;
+
+	public KanjiComponentIncidence(List<? extends TaggedKanjiList> componentLists) {
+		requireNonNull(componentLists);
+
+		KanjiList kanjiSet = new KanjiList();
+		componentLists.forEach(kanjiSet::addAll);
+		codePoints = kanjiSet.toArray();
+
+		int numComponents = componentLists.size();
+		tags = new int[numComponents];
+		kanjiOffsets = new int[numComponents + 1];
+		for (int component = 0; component < numComponents; component++) {
+			TaggedKanjiList componentList = componentLists.get(component);
+			tags[component] = componentList.getTag();
+			kanjiOffsets[component + 1] = kanjiOffsets[component] + componentList.size();
+		}
+
+		// Component lists are sorted by code point, and so are the node indices
+		kanji = new int[kanjiOffsets[numComponents]];
+		int[] numComponentsPerKanji = new int[codePoints.length + 1];
+		for (int component = 0; component < numComponents; component++) {
+			TaggedKanjiList componentList = componentLists.get(component);
+			for (int i = 0; i < componentList.size(); i++) {
+				int node = Arrays.binarySearch(codePoints, componentList.get(i));
+				kanji[kanjiOffsets[component] + i] = node;
+				numComponentsPerKanji[node + 1]++;
+			}
+		}
+
+		componentOffsets = numComponentsPerKanji;
+		for (int node = 0; node < codePoints.length; node++)
+			componentOffsets[node + 1] += componentOffsets[node];
+
+		// Iterating over the components in order keeps each kanji's component list sorted
+		components = new int[kanji.length];
+		signatures = new long[codePoints.length];
+		int[] positions = Arrays.copyOf(componentOffsets, codePoints.length);
+		for (int component = 0; component < numComponents; component++) {
+			for (int i = kanjiOffsets[component]; i < kanjiOffsets[component + 1]; i++) {
+				components[positions[kanji[i]]++] = component;
+				signatures[kanji[i]] |= 1L << component;
+			}
+		}
+
+		neighborCaches = ThreadLocal.withInitial(NeighborCache::new);
+	}
+
+	@Override
+	public int size() {
+		return codePoints.length;
+	}
+
+	public int getCodePoint(int node) { return codePoints[node]; }
+
+	public int numComponents()        { return tags.length; }
+
+	public int getTag(int component)  { return tags[component]; }
+
+	public int numIncidences()        { return kanji.length; }
+
+	public int numComponents(int node) {
+		return componentOffsets[node + 1] - componentOffsets[node];
+	}
+
+	/** The components of a kanji are listed in ascending order. */
+	public int getComponent(int node, int index) {
+		return components[componentOffsets[node] + index];
+	}
+
+	public int numKanji(int component) {
+		return kanjiOffsets[component + 1] - kanjiOffsets[component];
+	}
+
+	/** The kanji of a component are listed in ascending order. */
+	public int getKanji(int component, int index) {
+		return kanji[kanjiOffsets[component] + index];
+	}
+
+	/**
+	 * @return The number of components that two kanji have in common, which is the weight of their connection in the
+	 * projection.
+	 */
+	public int countSharedComponents(int x, int y) {
+		int count = 0;
+		int i     = componentOffsets[x];
+		int j     = componentOffsets[y];
+		int endI  = componentOffsets[x + 1];
+		int endJ  = componentOffsets[y + 1];
+		while (i < endI && j < endJ) {
+			if (components[i] < components[j]) {
+				i++;
+			} else if (components[i] > components[j]) {
+				j++;
+			} else {
+				count++;
+				i++;
+				j++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Calculates the weighted projection {@code A·Aᵀ}, where {@code A} is the kanji&times;component incidence matrix,
+	 * without the diagonal. The weight of a connection is the number of shared components.
+	 * <p>
+	 * Gustavson's row-wise sparse product, in parallel over the rows, with a dense accumulator per thread. The first
+	 * pass counts the neighbors per row to lay out the result, the second fills in the neighbors and weights.
+	 */
+	public WeightedGraph toWeightedGraph() {
+		int size = size();
+
+		ThreadLocal<RowAccumulator> accumulators = ThreadLocal.withInitial(RowAccumulator::new);
+
+		int[] offsets = new int[size + 1];
+		IntStream.range(0, size).parallel().forEach(node -> {
+			RowAccumulator accumulator = accumulators.get();
+			offsets[node + 1] = accumulator.accumulate(node);
+			accumulator.clear();
+		});
+
+		for (int node = 0; node < size; node++)
+			offsets[node + 1] += offsets[node];
+
+		int[] neighbors = new int[offsets[size]];
+		int[] weights   = new int[offsets[size]];
+		IntStream.range(0, size).parallel().forEach(node -> {
+			RowAccumulator accumulator = accumulators.get();
+			accumulator.accumulate(node);
+			accumulator.drainTo(neighbors, weights, offsets[node]);
+		});
+
+		return new WeightedGraph(offsets, neighbors, weights);
+	}
+
+	@Override
+	public boolean isConnected(int x, int y) {
+		if (x == y || (signatures[x] & signatures[y]) == 0)
+			return false;
+
+		int i    = componentOffsets[x];
+		int j    = componentOffsets[y];
+		int endI = componentOffsets[x + 1];
+		int endJ = componentOffsets[y + 1];
+		while (i < endI && j < endJ) {
+			if (components[i] < components[j])
+				i++;
+			else if (components[i] > components[j])
+				j++;
+			else
+				return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int numNeighbors(int node) {
+		return getNeighborCache().getNeighbors(node).length;
+	}
+
+	@Override
+	public int getNeighbor(int node, int index) {
+		return getNeighborCache().getNeighbors(node)[index];
+	}
+
+	@Override
+	public void setConnection(int x, int y) {
+		throw new UnsupportedOperationException("KanjiComponentIncidence is immutable");
+	}
+
+	@Override
+	public void removeConnection(int x, int y) {
+		throw new UnsupportedOperationException("KanjiComponentIncidence is immutable");
+	}
+
+	@Override
+	public void setGraph(Graph other) {
+		throw new UnsupportedOperationException("KanjiComponentIncidence is immutable");
+	}
+
+	/**
+	 * Walks the neighbor lists instead of probing every pair of nodes. Connections are returned with the lower index
+	 * first, ordered by the lower index.
+	 */
+	@Override
+	public ConnectionIterator iterator() {
+		//noinspection AnonymousInnerClassWithTooManyMethods,OverlyComplexAnonymousInnerClass
+		return new ConnectionIterator() {
+			private final NeighborCache cache = new NeighborCache();
+
+			private int   node      = -1;
+			private int[] neighbors = new int[0];
+			private int   index     = 0;
+
+			{
+				findNext();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return node < codePoints.length;
+			}
+
+			@Override
+			public int[] next() {
+				int[] connection = new int[2];
+				next(connection);
+				return connection;
+			}
+
+			@Override
+			public void next(int[] connection) {
+				if (!hasNext())
+					throw new NoSuchElementException("");
+
+				connection[0] = node;
+				connection[1] = neighbors[index++];
+				findNext();
+			}
+
+			private void findNext() {
+				while (index == neighbors.length) {
+					node++;
+					if (node == codePoints.length)
+						return;
+
+					neighbors = cache.getNeighbors(node);
+					index = 0;
+					while (index < neighbors.length && neighbors[index] < node)
+						index++;
+				}
+			}
+		};
+	}
+
+	private NeighborCache getNeighborCache() {
+		NeighborCache cache = lastNeighborCache;
+		if (cache == null || cache.owner != Thread.currentThread()) {
+			cache = neighborCaches.get();
+			lastNeighborCache = cache;
+		}
+
+		return cache;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		neighborCaches = ThreadLocal.withInitial(NeighborCache::new);
+	}
+
+	/**
+	 * Dense row of {@code A·Aᵀ} with a list of the touched columns, so clearing is proportional to the row's size.
+	 */
+	private final class RowAccumulator {
+		private final int[] sums    = new int[codePoints.length];
+		private final int[] touched = new int[codePoints.length];
+
+		private int numTouched = 0;
+
+		/**
+		 * @return The number of neighbors.
+		 */
+		int accumulate(int node) {
+			for (int i = componentOffsets[node]; i < componentOffsets[node + 1]; i++) {
+				int component = components[i];
+				for (int j = kanjiOffsets[component]; j < kanjiOffsets[component + 1]; j++) {
+					int neighbor = kanji[j];
+					if (neighbor == node)
+						continue;
+
+					if (sums[neighbor] == 0)
+						touched[numTouched++] = neighbor;
+					sums[neighbor]++;
+				}
+			}
+
+			return numTouched;
+		}
+
+		void drainTo(int[] neighbors, int[] weights, int offset) {
+			Arrays.sort(touched, 0, numTouched);
+			for (int i = 0; i < numTouched; i++) {
+				neighbors[offset + i] = touched[i];
+				weights[offset + i] = sums[touched[i]];
+			}
+
+			clear();
+		}
+
+		void clear() {
+			for (int i = 0; i < numTouched; i++)
+				sums[touched[i]] = 0;
+
+			numTouched = 0;
+		}
+	}
+
+	/**
+	 * Direct-mapped cache of the most recently calculated neighbor lists. Kanji are marked with a generation stamp
+	 * while taking the union, so nothing needs to be cleared between lists.
+	 */
+	private final class NeighborCache {
+		private final Thread  owner           = Thread.currentThread();
+		private final int[]   cachedNodes     = new int[CACHE_SIZE];
+		private final int[][] cachedNeighbors = new int[CACHE_SIZE][];
+		private final int[]   visited         = new int[codePoints.length];
+		private final int[]   buffer          = new int[codePoints.length];
+
+		private int generation = 0;
+
+		NeighborCache() {
+			Arrays.fill(cachedNodes, -1);
+		}
+
+		int[] getNeighbors(int node) {
+			int slot = node & (CACHE_SIZE - 1);
+			if (cachedNodes[slot] != node) {
+				cachedNeighbors[slot] = calculateNeighbors(node);
+				cachedNodes[slot] = node;
+			}
+
+			return cachedNeighbors[slot];
+		}
+
+		private int[] calculateNeighbors(int node) {
+			generation++;
+			if (generation == 0) {
+				Arrays.fill(visited, 0);
+				generation = 1;
+			}
+
+			visited[node] = generation;
+
+			int count = 0;
+			for (int i = componentOffsets[node]; i < componentOffsets[node + 1]; i++) {
+				int component = components[i];
+				for (int j = kanjiOffsets[component]; j < kanjiOffsets[component + 1]; j++) {
+					int neighbor = kanji[j];
+					if (visited[neighbor] != generation) {
+						visited[neighbor] = generation;
+						buffer[count++] = neighbor;
+					}
+				}
+			}
+
+			int[] neighbors = Arrays.copyOf(buffer, count);
+			Arrays.sort(neighbors);
+			return neighbors;
+		}
+	}
+}
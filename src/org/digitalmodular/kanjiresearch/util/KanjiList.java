@@ -26,20 +26,23 @@
  */
 package org.digitalmodular.kanjiresearch.util;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * List of kanji, sorted by Unicode code point. (So it's actually more like a Set, but indexable.)
  * <p>
  * Can also contain other characters than kanji, so check what you're adding.
+ * <p>
+ * The code points are kept in a sorted {@code int[]}, so bulk operations with other lists (union, intersection,
+ * difference) are a single merge pass, linear in the sizes of both lists. Adding single code points in ascending
+ * order is amortized constant time; in random order it's linear in the size, so prefer the bulk methods then.
  *
  * @author Mark Jeronimus
  */
 // Created 2018-02-17
 public class KanjiList {
-	private final List<Integer> kanji = new ArrayList<>(256);
+	private int[] kanji = new int[256];
+	private int   size  = 0;
 
 	public KanjiList() { }
 
@@ -48,42 +51,120 @@ public class KanjiList {
 		addAll(kanji);
 	}
 
-	public void add(Integer codePoint) {
-		int i = Collections.binarySearch(kanji, codePoint);
+	private KanjiList(int[] kanji, int size) {
+		this.kanji = kanji;
+		this.size = size;
+	}
+
+	public void add(int codePoint) {
+		if (size > 0 && codePoint > kanji[size - 1]) {
+			ensureCapacity(size + 1);
+			kanji[size++] = codePoint;
+			return;
+		}
+
+		int i = indexOf(codePoint);
 		if (i >= 0)
 			return;
 
-		kanji.add(-i - 1, codePoint);
+		i = -i - 1;
+		ensureCapacity(size + 1);
+		System.arraycopy(kanji, i, kanji, i + 1, size - i);
+		kanji[i] = codePoint;
+		size++;
 	}
 
 	public void addAll(Iterable<Integer> codePoints) {
-		for (Integer e : codePoints)
-			add(e);
+		int[] array = new int[16];
+		int   n     = 0;
+		for (Integer codePoint : codePoints) {
+			if (n == array.length)
+				array = Arrays.copyOf(array, n * 2);
+
+			array[n++] = codePoint;
+		}
+
+		addAll(Arrays.copyOf(array, n));
+	}
+
+	/**
+	 * Adds code points in any order and with duplicates, in {@code O(m log m + n)} time.
+	 */
+	public void addAll(int... codePoints) {
+		int[] sorted = codePoints.clone();
+		Arrays.sort(sorted);
+
+		int n = 0;
+		for (int i = 0; i < sorted.length; i++)
+			if (i == 0 || sorted[i] != sorted[i - 1])
+				sorted[n++] = sorted[i];
+
+		setUnion(sorted, n);
+	}
+
+	public void addAll(KanjiList other)    { setUnion(other.kanji, other.size); }
+
+	public int size()                      { return size; }
+
+	public boolean isEmpty()               { return size == 0; }
+
+	public int get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+		return kanji[index];
 	}
 
-	public void addAll(KanjiList other)    { addAll(other.kanji); }
+	/**
+	 * Removes all kanji not in {@code other}.
+	 */
+	public void retainAll(KanjiList other) {
+		size = intersect(kanji, size, other.kanji, other.size, kanji);
+	}
 
-	public int size()                      { return kanji.size(); }
+	/**
+	 * Removes all kanji in {@code other}.
+	 */
+	public void removeAll(KanjiList other) {
+		size = subtract(kanji, size, other.kanji, other.size, kanji);
+	}
 
-	public boolean isEmpty()               { return kanji.isEmpty(); }
+	/**
+	 * @return The index of the code point, or {@code (-(insertion point) - 1)} if not present, like
+	 * {@link Arrays#binarySearch(int[], int)}.
+	 */
+	public int indexOf(int codePoint)      { return Arrays.binarySearch(kanji, 0, size, codePoint); }
 
-	public Integer get(int index)          { return kanji.get(index); }
+	public boolean contains(int codePoint) { return indexOf(codePoint) >= 0; }
 
-	public void retainAll(KanjiList other) { kanji.retainAll(other.kanji); }
+	public String getAsString(int index)   { return new String(new int[]{get(index)}, 0, 1); }
 
-	public int indexOf(Integer codePoint)  { return Collections.binarySearch(kanji, codePoint); }
+	public int[] toArray()                 { return Arrays.copyOf(kanji, size); }
 
-	public String getAsString(int index)   { return new String(new int[]{kanji.get(index)}, 0, 1); }
+	public String getKanjiString()         { return new String(kanji, 0, size); }
 
-	public int[] toArray() {
-		return kanji.stream()
-		            .mapToInt(Integer::intValue)
-		            .toArray();
+	/**
+	 * @return A new list with all kanji in this list, {@code other}, or both.
+	 */
+	public KanjiList union(KanjiList other) {
+		int[] result = new int[size + other.size];
+		return new KanjiList(result, unite(kanji, size, other.kanji, other.size, result));
 	}
 
-	public String getKanjiString() {
-		int[] array = toArray();
-		return new String(array, 0, array.length);
+	/**
+	 * @return A new list with all kanji in both this list and {@code other}.
+	 */
+	public KanjiList intersection(KanjiList other) {
+		int[] result = new int[Math.max(1, Math.min(size, other.size))];
+		return new KanjiList(result, intersect(kanji, size, other.kanji, other.size, result));
+	}
+
+	/**
+	 * @return A new list with all kanji in this list but not in {@code other}.
+	 */
+	public KanjiList difference(KanjiList other) {
+		int[] result = new int[Math.max(1, size)];
+		return new KanjiList(result, subtract(kanji, size, other.kanji, other.size, result));
 	}
 
 	/**
@@ -91,14 +172,34 @@ public class KanjiList {
 	 * all kanji found in the {@code other} list but not in this, and in the third list all kanji in both lists.
 	 */
 	public KanjiList[] differences(KanjiList other) {
-		List<Integer> thisNotOther = new ArrayList<>(kanji);
-		List<Integer> otherNotThis = new ArrayList<>(other.kanji);
-		List<Integer> inBoth       = new ArrayList<>(kanji);
-		thisNotOther.removeAll(other.kanji);
-		otherNotThis.removeAll(kanji);
-		inBoth.retainAll(other.kanji);
+		int[] thisNotOther = new int[Math.max(1, size)];
+		int[] otherNotThis = new int[Math.max(1, other.size)];
+		int[] inBoth       = new int[Math.max(1, Math.min(size, other.size))];
+
+		int i = 0;
+		int j = 0;
+		int a = 0;
+		int b = 0;
+		int c = 0;
+		while (i < size && j < other.size) {
+			if (kanji[i] < other.kanji[j])
+				thisNotOther[a++] = kanji[i++];
+			else if (kanji[i] > other.kanji[j])
+				otherNotThis[b++] = other.kanji[j++];
+			else {
+				inBoth[c++] = kanji[i++];
+				j++;
+			}
+		}
+
+		while (i < size)
+			thisNotOther[a++] = kanji[i++];
+		while (j < other.size)
+			otherNotThis[b++] = other.kanji[j++];
 
-		return new KanjiList[]{new KanjiList(thisNotOther), new KanjiList(otherNotThis), new KanjiList(inBoth)};
+		return new KanjiList[]{new KanjiList(thisNotOther, a),
+		                       new KanjiList(otherNotThis, b),
+		                       new KanjiList(inBoth, c)};
 	}
 
 	@Override
@@ -109,20 +210,119 @@ public class KanjiList {
 			return false;
 
 		KanjiList kanjiList = (KanjiList)o;
-		return kanji.equals(kanjiList.kanji);
+		if (size != kanjiList.size)
+			return false;
+
+		for (int i = 0; i < size; i++)
+			if (kanji[i] != kanjiList.kanji[i])
+				return false;
+
+		return true;
 	}
 
+	/**
+	 * Same as {@link java.util.List#hashCode()} of the code points.
+	 */
 	@Override
 	public int hashCode() {
-		return kanji.hashCode();
+		int hashCode = 1;
+		for (int i = 0; i < size; i++)
+			hashCode = 31 * hashCode + kanji[i];
+
+		return hashCode;
 	}
 
 	@Override
 	public String toString() {
-		int[] array = toArray();
-		if (array.length <= 10)
-			return new String(array, 0, array.length);
+		if (size <= 10)
+			return new String(kanji, 0, size);
 		else
-			return new String(array, 0, 10) + "...";
+			return new String(kanji, 0, 10) + "...";
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > kanji.length)
+			kanji = Arrays.copyOf(kanji, Math.max(capacity, kanji.length * 2));
+	}
+
+	private void setUnion(int[] other, int otherSize) {
+		if (otherSize == 0)
+			return;
+
+		// Fast path for appending, e.g. when building from ascending code points
+		if (size == 0 || other[0] > kanji[size - 1]) {
+			ensureCapacity(size + otherSize);
+			System.arraycopy(other, 0, kanji, size, otherSize);
+			size += otherSize;
+			return;
+		}
+
+		int[] result = new int[Math.max(kanji.length, size + otherSize)];
+		size = unite(kanji, size, other, otherSize, result);
+		kanji = result;
+	}
+
+	private static int unite(int[] a, int aSize, int[] b, int bSize, int[] result) {
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while (i < aSize && j < bSize) {
+			if (a[i] < b[j])
+				result[n++] = a[i++];
+			else if (a[i] > b[j])
+				result[n++] = b[j++];
+			else {
+				result[n++] = a[i++];
+				j++;
+			}
+		}
+
+		while (i < aSize)
+			result[n++] = a[i++];
+		while (j < bSize)
+			result[n++] = b[j++];
+
+		return n;
+	}
+
+	/**
+	 * {@code result} may be {@code a}, as it's never written ahead of reading.
+	 */
+	private static int intersect(int[] a, int aSize, int[] b, int bSize, int[] result) {
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while (i < aSize && j < bSize) {
+			if (a[i] < b[j])
+				i++;
+			else if (a[i] > b[j])
+				j++;
+			else {
+				result[n++] = a[i++];
+				j++;
+			}
+		}
+
+		return n;
+	}
+
+	/**
+	 * {@code result} may be {@code a}, as it's never written ahead of reading.
+	 */
+	private static int subtract(int[] a, int aSize, int[] b, int bSize, int[] result) {
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while (i < aSize) {
+			while (j < bSize && b[j] < a[i])
+				j++;
+
+			if (j == bSize || b[j] != a[i])
+				result[n++] = a[i];
+
+			i++;
+		}
+
+		return n;
 	}
 }
@@ -31,8 +31,6 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Reader/writer for our kanji-set (<tt>*-set.utf8</tt>) file format.
@@ -51,11 +49,9 @@ public final class KanjiSetFileIO {
 	}
 
 	public static KanjiList read(String filename) throws IOException {
-		List<Integer> codePoints = Files.lines(Paths.get(filename), StandardCharsets.UTF_8)
-		                                .flatMapToInt(String::codePoints)
-		                                .distinct()
-		                                .boxed()
-		                                .collect(Collectors.toList());
+		int[] codePoints = Files.lines(Paths.get(filename), StandardCharsets.UTF_8)
+		                        .flatMapToInt(String::codePoints)
+		                        .toArray();
 
 		KanjiList kanjiList = new KanjiList();
 		kanjiList.addAll(codePoints);
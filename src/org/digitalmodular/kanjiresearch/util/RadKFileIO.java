@@ -34,7 +34,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -59,9 +58,7 @@ public final class RadKFileIO {
 			if (matcher.matches())
 				components.add(new TaggedKanjiList(matcher.group(1).codePointAt(0)));
 			else if (!components.isEmpty())
-				components.getLast().addAll(line.codePoints()
-				                                .boxed()
-				                                .collect(Collectors.toList()));
+				components.getLast().addAll(line.codePoints().toArray());
 		});
 
 		return components;
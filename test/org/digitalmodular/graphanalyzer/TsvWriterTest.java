@@ -0,0 +1,95 @@
+/*
+ * This file is part of KanjiResearch.
+ *
+ * Copyleft 2018 Mark Jeronimus. All Rights Reversed.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with KanjiResearch. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.digitalmodular.graphanalyzer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Compares {@link TsvWriter#appendFixed(double, int, int)} with {@link String#format(String, Object...)} over many
+ * orders of magnitude, both on uniformly random values and on values whose decimal representation ends exactly on a
+ * rounding tie, which is where the fast path can go wrong.
+ *
+ * @author Mark Jeronimus
+ */
+// Created 2026-10-19
+public final class TsvWriterTest {
+	private static final int  VALUES_PER_RANGE = 200_000;
+	private static final int  MAX_MAGNITUDE    = 14;
+	private static final long SEED             = 0x7357;
+
+	private TsvWriterTest() { throw new AssertionError(); }
+
+	public static void main(String... args) throws IOException {
+		SplittableRandom random = new SplittableRandom(SEED);
+
+		int numTested = 0;
+		for (int magnitude = -3; magnitude <= MAX_MAGNITUDE; magnitude++) {
+			double range = Math.pow(10, magnitude);
+			for (int decimals : new int[]{0, 2, 5, 9}) {
+				int width = decimals + 2;
+				for (int i = 0; i < VALUES_PER_RANGE / 4; i++) {
+					check(random.nextDouble() * range, width, decimals);
+					check(makeTie(random, magnitude, decimals), width, decimals);
+					numTested += 2;
+				}
+			}
+		}
+
+		double[] specialValues = {0.0, -0.0, Double.MIN_VALUE, 0.5, 1.5, 2.5, 5168468.294875, Double.MAX_VALUE,
+		                          -1.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+		for (double value : specialValues)
+			for (int decimals = 0; decimals <= 9; decimals++)
+				check(value, 7, decimals);
+
+		System.out.println(numTested + " values formatted identically");
+	}
+
+	/**
+	 * @return A value in {@code [0, 10^magnitude)} whose shortest decimal representation has one digit more than
+	 * {@code decimals}, which is a 5.
+	 */
+	private static double makeTie(SplittableRandom random, int magnitude, int decimals) {
+		long   integer  = magnitude > 0 ? random.nextLong((long)Math.pow(10, magnitude)) : 0;
+		long   fraction = decimals > 0 ? random.nextLong((long)Math.pow(10, decimals)) : 0;
+		String digits   = decimals > 0 ? String.format("%0" + decimals + 'd', fraction) : "";
+		return Double.parseDouble(integer + "." + digits + '5');
+	}
+
+	private static void check(double value, int width, int decimals) throws IOException {
+		StringWriter out = new StringWriter(32);
+		try (TsvWriter tsv = new TsvWriter(out)) {
+			tsv.appendFixed(value, width, decimals);
+		}
+
+		String expected = String.format("%" + width + '.' + decimals + 'f', value);
+		if (!out.toString().equals(expected))
+			throw new AssertionError("appendFixed(" + value + ", " + width + ", " + decimals + ") = \"" + out +
+			                         "\", expected \"" + expected + '"');
+	}
+}